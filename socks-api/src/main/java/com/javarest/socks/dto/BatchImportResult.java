@@ -0,0 +1,30 @@
+package com.javarest.socks.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+@Schema(description = "Summary of a batch income registration")
+public class BatchImportResult {
+
+    @Schema(description = "Number of rows read from the uploaded file", example = "50000")
+    private final long rows;
+
+    @Schema(description = "Number of rows skipped because they failed validation", example = "3")
+    private final long failedRows;
+
+    @Schema(description = "Number of distinct consignments written after merging duplicate rows", example = "1200")
+    private final int consignments;
+
+    @Schema(description = "Time spent writing the batch to the database, in milliseconds", example = "850")
+    private final long elapsedMillis;
+
+    @Schema(description = "Rows registered per second", example = "58823")
+    public long getRowsPerSecond() {
+        return elapsedMillis == 0 ? rows * 1000 : rows * 1000 / elapsedMillis;
+    }
+}
@@ -0,0 +1,8 @@
+package com.javarest.socks.dto;
+
+public enum BatchJobState {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
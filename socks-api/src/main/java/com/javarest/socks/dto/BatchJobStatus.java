@@ -0,0 +1,34 @@
+package com.javarest.socks.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+@Builder
+@Schema(description = "Progress of an asynchronous batch import job")
+public class BatchJobStatus {
+
+    @Schema(description = "Identifier of the job, used for polling and resuming", example = "3f1c2a4e-8b7d-4f65-9d0e-2c6a1b5e7f90")
+    private final UUID jobId;
+
+    @Schema(description = "Name of the uploaded file", example = "supplier-2024-12.xlsx")
+    private final String fileName;
+
+    @Schema(description = "Current state of the job", example = "RUNNING")
+    private final BatchJobState state;
+
+    @Schema(description = "Number of file rows committed to the database, including failed rows", example = "120000")
+    private final long rowsProcessed;
+
+    @Schema(description = "Number of rows skipped because they failed validation", example = "12")
+    private final long rowsFailed;
+
+    @Schema(description = "Rows processed per second during the current or last run", example = "45000")
+    private final long rowsPerSecond;
+
+    @Schema(description = "Reason of the failure, present only for failed jobs", example = "There was an error processing the file.")
+    private final String error;
+}
@@ -0,0 +1,190 @@
+package com.javarest.socks.dto;
+
+import com.javarest.socks.filter.CottonFilterParser;
+import com.javarest.socks.filter.CottonPredicate;
+import com.javarest.socks.filter.CottonRanges;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Compiled cotton percentage filter expression, such as {@code 30-70}, {@code >=30,<=70}, {@code !=50}
+ * or {@code 10-20|80-100}; see {@link CottonFilterParser} for the grammar. The expression is parsed once
+ * into a {@link CottonPredicate} and reduced to sorted disjoint ranges, which render as one parameterized
+ * SQL condition and are summed directly by the count index. Instances are immutable, and
+ * {@link #of(String)} reuses them for repeated expressions.
+ */
+@Schema(description = "Model for cotton percentage filtering parameters, supporting ranges, comparison operators, " +
+        "conjunctions (,) and disjunctions (|)")
+public class CottonPercentageFilter {
+
+    /**
+     * Upper limit of ranges an expression may reduce to, which bounds the number of distinct SQL statements.
+     */
+    public static final int MAX_RANGES = 16;
+
+    /**
+     * Matches every cotton percentage.
+     */
+    public static final CottonPercentageFilter ANY = new CottonPercentageFilter(">=" + Integer.MIN_VALUE);
+
+    private static final int CACHE_SIZE = 1024;
+
+    private static final ConcurrentMap<String, CottonPercentageFilter> CACHE = new ConcurrentHashMap<>();
+
+    @Getter
+    @Schema(description = "Filter expression as received", example = ">=30,<=70")
+    private final String expression;
+
+    @Getter
+    @Schema(description = "Operator of a single-term filter (range / > / >= / < / <= / = / !=), " +
+            "or 'expression' for compound filters", example = ">")
+    private final String operator;
+
+    @Getter
+    @Schema(description = "Minimum value of the cotton percentage (used in range-based filter)", example = "30")
+    private final Integer minValue;
+
+    @Getter
+    @Schema(description = "Maximum value of the cotton percentage (used in range-based filter)", example = "90")
+    private final Integer maxValue;
+
+    private final CottonPredicate predicate;
+
+    private final CottonRanges ranges;
+
+    private final Map<String, Integer> sqlParameters;
+
+    public CottonPercentageFilter(String filterExpression) {
+        this.expression = filterExpression;
+        this.predicate = CottonFilterParser.parse(filterExpression);
+        this.ranges = predicate.ranges();
+        if (ranges.count() > MAX_RANGES) {
+            throw new IllegalArgumentException("Too many ranges in filter: " + filterExpression);
+        }
+
+        Map<String, Integer> parameters = new HashMap<>();
+        for (int i = 0; i < ranges.count(); i++) {
+            parameters.put(minParameter(i), ranges.lowerBound(i));
+            parameters.put(maxParameter(i), ranges.upperBound(i));
+        }
+        this.sqlParameters = Map.copyOf(parameters);
+
+        if (predicate instanceof CottonPredicate.Between between) {
+            this.operator = "range";
+            this.minValue = between.min();
+            this.maxValue = between.max();
+        } else if (predicate instanceof CottonPredicate.Comparison comparison) {
+            boolean upper = comparison.operator() == CottonPredicate.Operator.LESS
+                    || comparison.operator() == CottonPredicate.Operator.LESS_OR_EQUAL;
+            this.operator = comparison.operator().getSymbol();
+            this.minValue = upper ? null : comparison.value();
+            this.maxValue = upper ? comparison.value() : null;
+        } else {
+            this.operator = "expression";
+            this.minValue = null;
+            this.maxValue = null;
+        }
+    }
+
+    /**
+     * Compiles the expression, or returns the filter compiled for an equal expression before.
+     *
+     * @throws IllegalArgumentException If the expression is not well-formed.
+     */
+    public static CottonPercentageFilter of(String filterExpression) {
+        CottonPercentageFilter filter = CACHE.get(filterExpression);
+        if (filter == null) {
+            filter = new CottonPercentageFilter(filterExpression);
+            if (CACHE.size() >= CACHE_SIZE) {
+                CACHE.clear();
+            }
+            CACHE.put(filterExpression, filter);
+        }
+        return filter;
+    }
+
+    @Schema(description = "If true, uses range-based filtering (minValue to maxValue). False otherwise.", example = "true")
+    public boolean isRange() {
+        return "range".equals(operator);
+    }
+
+    /**
+     * Evaluates the filter in memory.
+     */
+    public boolean test(int cottonPercentage) {
+        return predicate.test(cottonPercentage);
+    }
+
+    /**
+     * @return True when no cotton percentage can match, such as for {@code >70,<30}.
+     */
+    public boolean matchesNothing() {
+        return ranges.count() == 0;
+    }
+
+    /**
+     * @return Number of disjoint inclusive ranges the filter matches.
+     */
+    public int rangeCount() {
+        return ranges.count();
+    }
+
+    public int lowerBound(int range) {
+        return ranges.lowerBound(range);
+    }
+
+    public int upperBound(int range) {
+        return ranges.upperBound(range);
+    }
+
+    /**
+     * Renders the filter as one SQL (or JPQL) condition on the given column, with named parameters
+     * bound from {@link #getSqlParameters()}. The text depends only on {@link #rangeCount()}.
+     */
+    public String toSql(String column) {
+        return toSql(column, rangeCount());
+    }
+
+    /**
+     * Condition text of any filter reducing to {@code rangeCount} ranges, e.g.
+     * {@code (c BETWEEN :minCotton0 AND :maxCotton0 OR c BETWEEN :minCotton1 AND :maxCotton1)}.
+     */
+    public static String toSql(String column, int rangeCount) {
+        if (rangeCount == 0) {
+            return "1 = 0";
+        }
+        StringBuilder sql = new StringBuilder("(");
+        for (int i = 0; i < rangeCount; i++) {
+            if (i > 0) {
+                sql.append(" OR ");
+            }
+            sql.append(column).append(" BETWEEN :").append(minParameter(i)).append(" AND :").append(maxParameter(i));
+        }
+        return sql.append(')').toString();
+    }
+
+    /**
+     * @return Values of the named parameters of {@link #toSql(String)}.
+     */
+    public Map<String, Integer> getSqlParameters() {
+        return sqlParameters;
+    }
+
+    private static String minParameter(int range) {
+        return "minCotton" + range;
+    }
+
+    private static String maxParameter(int range) {
+        return "maxCotton" + range;
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
@@ -0,0 +1,16 @@
+package com.javarest.socks.dto;
+
+public enum MovementStatus {
+    /**
+     * The movement has been registered.
+     */
+    APPLIED,
+    /**
+     * The movement can not be registered, so the whole bulk has been rolled back.
+     */
+    REJECTED,
+    /**
+     * The movement is valid but has been rolled back because another movement of the bulk was rejected.
+     */
+    NOT_APPLIED
+}
@@ -0,0 +1,6 @@
+package com.javarest.socks.dto;
+
+public enum MovementType {
+    INCOME,
+    OUTCOME
+}
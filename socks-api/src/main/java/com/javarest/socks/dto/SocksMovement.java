@@ -0,0 +1,37 @@
+package com.javarest.socks.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Income or outcome of socks within a bulk of movements")
+public class SocksMovement {
+
+    @NotNull(message = "Movement type must be provided")
+    @Schema(description = "Whether socks arrive at or leave the warehouse", example = "OUTCOME")
+    private MovementType type;
+
+    @NotBlank(message = "Color must be provided")
+    @Schema(description = "Color of the socks", example = "red")
+    private String color;
+
+    @Min(value = 0, message = "Color percentage must be greater than 0")
+    @Max(value = 100, message = "Color percentage must be lower than 100")
+    @Schema(description = "Cotton percentage of the socks", example = "80")
+    private int cottonPercentage;
+
+    @Positive(message = "Quantity must be a positive number")
+    @Schema(description = "Quantity of socks", example = "100")
+    private int quantity;
+}
@@ -0,0 +1,25 @@
+package com.javarest.socks.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+@Schema(description = "Outcome of one entry of a bulk of movements")
+public class SocksMovementResult {
+
+    @Schema(description = "Position of the entry in the request, starting at 0", example = "0")
+    private final int index;
+
+    @Schema(description = "Whether the entry has been registered", example = "APPLIED")
+    private final MovementStatus status;
+
+    @Schema(description = "Quantity in stock right after the entry, or null if it has not been applied", example = "80")
+    private final Integer stockAfter;
+
+    @Schema(description = "Why the entry has been rejected, or null", example = "Not enough socks in stock to fulfill your request.")
+    private final String message;
+}
@@ -0,0 +1,25 @@
+package com.javarest.socks.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Movements registered together in one transaction")
+public class SocksMovementsRequest {
+
+    public static final int MAX_MOVEMENTS = 10_000;
+
+    @NotEmpty(message = "At least one movement must be provided")
+    @Size(max = MAX_MOVEMENTS, message = "Too many movements in one bulk")
+    @Schema(description = "Income and outcome entries in the order they happened")
+    private List<@Valid SocksMovement> movements;
+}
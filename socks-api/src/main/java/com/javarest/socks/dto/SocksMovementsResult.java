@@ -0,0 +1,21 @@
+package com.javarest.socks.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+@Getter
+@ToString
+@AllArgsConstructor
+@Schema(description = "Per-entry outcome of a bulk of movements")
+public class SocksMovementsResult {
+
+    @Schema(description = "Whether all movements have been registered; if false, none of them has", example = "true")
+    private final boolean applied;
+
+    @Schema(description = "Results in the order of the requested movements")
+    private final List<SocksMovementResult> results;
+}
@@ -0,0 +1,18 @@
+package com.javarest.socks.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class SocksPage {
+
+    private final List<SocksResponse> items;
+
+    /**
+     * Opaque cursor of the next page, or null when this is the last page.
+     */
+    private final String nextCursor;
+}
@@ -0,0 +1,29 @@
+package com.javarest.socks.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Socks consignment as returned by the query endpoints. Built by the queries straight from the selected
+ * columns, so no managed entity is created for rows that are only read.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+@Schema(description = "Socks consignment with its color, cotton percentage and quantity in stock")
+public class SocksResponse {
+
+    @Schema(description = "ID of the consignment", example = "1")
+    private final Long id;
+
+    @Schema(description = "Color of the socks", example = "red")
+    private final String color;
+
+    @Schema(description = "Cotton percentage of the socks", example = "80")
+    private final int cottonPercentage;
+
+    @Schema(description = "Quantity of socks in stock", example = "100")
+    private final int quantity;
+}
@@ -27,7 +27,25 @@ public enum ErrorMessage {
             - cottonPercentage (only positive digit up to 100)\s
             - quantity (only positive digit)."""),
 
-    INVALID_SORT_DIRECTION("Invalid sorting direction. Please pick 'asc' for ascending and 'desc' for descending");
+    INVALID_SORT_DIRECTION("Invalid sorting direction. Please pick 'asc' for ascending and 'desc' for descending"),
+
+    BATCH_JOB_NOT_FOUND("Batch job was not found."),
+
+    BATCH_JOB_NOT_RESUMABLE("Only batch jobs that failed while processing their rows can be resumed."),
+
+    BATCH_JOBS_BUSY("Too many batch jobs are in progress. Please try again later."),
+
+    INVALID_PAGE_REQUEST("Invalid page request. Please check the limit, the cursor and the sort field."),
+
+    DATABASE_BUSY("The database is busy or unavailable. Please try again later."),
+
+    CONCURRENT_MODIFICATION("The socks have been changed by other requests in the meantime. Please try again."),
+
+    QUANTITY_OVERFLOW("The total quantity of a consignment is too large."),
+
+    PARTIAL_IMPORT("The import failed after its first %d rows had been registered. Please resubmit the remaining rows only."),
+
+    MOVEMENTS_REJECTED("Some movements could not be registered, so none of them has been. See the results of the entries.");
 
     private final String msg;
 
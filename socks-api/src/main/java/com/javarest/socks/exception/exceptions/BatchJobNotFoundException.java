@@ -0,0 +1,7 @@
+package com.javarest.socks.exception.exceptions;
+
+public class BatchJobNotFoundException extends RuntimeException {
+    public BatchJobNotFoundException(String message) {
+        super(message);
+    }
+}
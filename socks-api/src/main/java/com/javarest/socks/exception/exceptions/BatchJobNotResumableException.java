@@ -0,0 +1,7 @@
+package com.javarest.socks.exception.exceptions;
+
+public class BatchJobNotResumableException extends RuntimeException {
+    public BatchJobNotResumableException(String message) {
+        super(message);
+    }
+}
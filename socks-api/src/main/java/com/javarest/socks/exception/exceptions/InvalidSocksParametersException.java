@@ -0,0 +1,7 @@
+package com.javarest.socks.exception.exceptions;
+
+public class InvalidSocksParametersException extends RuntimeException {
+    public InvalidSocksParametersException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package com.javarest.socks.exception.exceptions;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a streamed import fails after some of its chunks have already been committed. Carries the
+ * number of rows read up to the last committed chunk, so the client can resubmit the rest of the stream.
+ */
+@Getter
+public class PartialImportException extends RuntimeException {
+
+    private final long committedRows;
+
+    public PartialImportException(String message, long committedRows, Throwable cause) {
+        super(message, cause);
+        this.committedRows = committedRows;
+    }
+}
@@ -0,0 +1,7 @@
+package com.javarest.socks.exception.exceptions;
+
+public class QuantityOverflowException extends RuntimeException {
+    public QuantityOverflowException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.javarest.socks.exception.exceptions;
+
+import com.javarest.socks.dto.SocksMovementsResult;
+import lombok.Getter;
+
+/**
+ * Thrown when at least one movement of a bulk can not be registered. Rolls back the whole bulk
+ * and carries the per-entry results, so the client can see which entries were rejected and why.
+ */
+@Getter
+public class SocksMovementsRejectedException extends RuntimeException {
+
+    private final SocksMovementsResult result;
+
+    public SocksMovementsRejectedException(String message, SocksMovementsResult result) {
+        super(message);
+        this.result = result;
+    }
+}
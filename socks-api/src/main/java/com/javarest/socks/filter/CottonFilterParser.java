@@ -0,0 +1,153 @@
+package com.javarest.socks.filter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single-pass parser of cotton percentage filter expressions:
+ * <pre>
+ * expression := conjunction ('|' conjunction)*
+ * conjunction := term (',' term)*
+ * term       := operator number | number '-' number
+ * operator   := '&gt;' | '&gt;=' | '&lt;' | '&lt;=' | '=' | '!='
+ * number     := '-'? digit+
+ * </pre>
+ * Conjunctions bind tighter than disjunctions, so {@code 10-20|>=30,<=40} matches 10 to 20 or 30 to 40.
+ * Whitespace between tokens is ignored. The expression is read in place, without splitting it into substrings.
+ */
+public final class CottonFilterParser {
+
+    private final String expression;
+
+    private int position;
+
+    private CottonFilterParser(String expression) {
+        this.expression = expression;
+    }
+
+    /**
+     * @throws IllegalArgumentException If the expression is not well-formed.
+     */
+    public static CottonPredicate parse(String expression) {
+        CottonFilterParser parser = new CottonFilterParser(expression);
+        CottonPredicate predicate = parser.disjunction();
+        parser.skipWhitespace();
+        if (parser.position < expression.length()) {
+            throw parser.error("Invalid operator in filter: ");
+        }
+        return predicate;
+    }
+
+    private CottonPredicate disjunction() {
+        CottonPredicate first = conjunction();
+        if (!consume('|')) {
+            return first;
+        }
+        List<CottonPredicate> operands = new ArrayList<>(4);
+        operands.add(first);
+        do {
+            operands.add(conjunction());
+        } while (consume('|'));
+        return new CottonPredicate.AnyOf(operands);
+    }
+
+    private CottonPredicate conjunction() {
+        CottonPredicate first = term();
+        if (!consume(',')) {
+            return first;
+        }
+        List<CottonPredicate> operands = new ArrayList<>(4);
+        operands.add(first);
+        do {
+            operands.add(term());
+        } while (consume(','));
+        return new CottonPredicate.AllOf(operands);
+    }
+
+    private CottonPredicate term() {
+        skipWhitespace();
+        if (position >= expression.length()) {
+            throw error("Invalid operator in filter: ");
+        }
+        char c = expression.charAt(position);
+        if (c == '-' || isDigit(c)) {
+            int min = number();
+            if (!consume('-')) {
+                throw error("Invalid operator in filter: ");
+            }
+            int max = number();
+            if (min > max) {
+                throw error("Invalid range in filter: ");
+            }
+            return new CottonPredicate.Between(min, max);
+        }
+        CottonPredicate.Operator operator = operator();
+        return new CottonPredicate.Comparison(operator, number());
+    }
+
+    private CottonPredicate.Operator operator() {
+        char c = expression.charAt(position++);
+        boolean orEqual = position < expression.length() && expression.charAt(position) == '=';
+        CottonPredicate.Operator operator = switch (c) {
+            case '>' -> orEqual ? CottonPredicate.Operator.GREATER_OR_EQUAL : CottonPredicate.Operator.GREATER;
+            case '<' -> orEqual ? CottonPredicate.Operator.LESS_OR_EQUAL : CottonPredicate.Operator.LESS;
+            case '=' -> CottonPredicate.Operator.EQUAL;
+            case '!' -> orEqual ? CottonPredicate.Operator.NOT_EQUAL : null;
+            default -> null;
+        };
+        if (operator == null) {
+            throw error("Invalid operator in filter: ");
+        }
+        if (operator.getSymbol().length() == 2) {
+            position++;
+        }
+        return operator;
+    }
+
+    private int number() {
+        skipWhitespace();
+        boolean negative = position < expression.length() && expression.charAt(position) == '-';
+        if (negative) {
+            position++;
+        }
+        int start = position;
+        long value = 0;
+        while (position < expression.length() && isDigit(expression.charAt(position))) {
+            value = value * 10 + (expression.charAt(position++) - '0');
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw error("Invalid value in filter: ");
+            }
+        }
+        if (position == start) {
+            throw error("Invalid value in filter: ");
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw error("Invalid value in filter: ");
+        }
+        return (int) value;
+    }
+
+    private boolean consume(char token) {
+        skipWhitespace();
+        if (position < expression.length() && expression.charAt(position) == token) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void skipWhitespace() {
+        while (position < expression.length() && Character.isWhitespace(expression.charAt(position))) {
+            position++;
+        }
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + expression);
+    }
+}
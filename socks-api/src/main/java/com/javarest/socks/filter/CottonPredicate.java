@@ -0,0 +1,136 @@
+package com.javarest.socks.filter;
+
+import java.util.List;
+
+/**
+ * Immutable syntax tree of a cotton percentage filter expression, built by {@link CottonFilterParser}.
+ * Every node can be evaluated against a single cotton percentage and reduced to the set of
+ * cotton percentages it matches.
+ */
+public sealed interface CottonPredicate {
+
+    boolean test(int cottonPercentage);
+
+    /**
+     * @return The cotton percentages matched by this node, as sorted disjoint inclusive ranges.
+     */
+    CottonRanges ranges();
+
+    enum Operator {
+        GREATER(">"), GREATER_OR_EQUAL(">="), LESS("<"), LESS_OR_EQUAL("<="), EQUAL("="), NOT_EQUAL("!=");
+
+        private final String symbol;
+
+        Operator(String symbol) {
+            this.symbol = symbol;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+    }
+
+    /**
+     * {@code >50}, {@code <=70}, {@code !=50} and the like.
+     */
+    record Comparison(Operator operator, int value) implements CottonPredicate {
+
+        @Override
+        public boolean test(int cottonPercentage) {
+            return switch (operator) {
+                case GREATER -> cottonPercentage > value;
+                case GREATER_OR_EQUAL -> cottonPercentage >= value;
+                case LESS -> cottonPercentage < value;
+                case LESS_OR_EQUAL -> cottonPercentage <= value;
+                case EQUAL -> cottonPercentage == value;
+                case NOT_EQUAL -> cottonPercentage != value;
+            };
+        }
+
+        @Override
+        public CottonRanges ranges() {
+            return switch (operator) {
+                case GREATER -> value == Integer.MAX_VALUE ? CottonRanges.NONE : CottonRanges.of(value + 1, Integer.MAX_VALUE);
+                case GREATER_OR_EQUAL -> CottonRanges.of(value, Integer.MAX_VALUE);
+                case LESS -> value == Integer.MIN_VALUE ? CottonRanges.NONE : CottonRanges.of(Integer.MIN_VALUE, value - 1);
+                case LESS_OR_EQUAL -> CottonRanges.of(Integer.MIN_VALUE, value);
+                case EQUAL -> CottonRanges.of(value, value);
+                case NOT_EQUAL -> CottonRanges.of(value, value).complement();
+            };
+        }
+    }
+
+    /**
+     * Inclusive range {@code 30-70}.
+     */
+    record Between(int min, int max) implements CottonPredicate {
+
+        @Override
+        public boolean test(int cottonPercentage) {
+            return cottonPercentage >= min && cottonPercentage <= max;
+        }
+
+        @Override
+        public CottonRanges ranges() {
+            return CottonRanges.of(min, max);
+        }
+    }
+
+    /**
+     * Conjunction {@code >=30,<=70}.
+     */
+    record AllOf(List<CottonPredicate> operands) implements CottonPredicate {
+
+        public AllOf {
+            operands = List.copyOf(operands);
+        }
+
+        @Override
+        public boolean test(int cottonPercentage) {
+            for (CottonPredicate operand : operands) {
+                if (!operand.test(cottonPercentage)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public CottonRanges ranges() {
+            CottonRanges ranges = CottonRanges.ALL;
+            for (CottonPredicate operand : operands) {
+                ranges = ranges.intersect(operand.ranges());
+            }
+            return ranges;
+        }
+    }
+
+    /**
+     * Disjunction {@code 10-20|80-100}.
+     */
+    record AnyOf(List<CottonPredicate> operands) implements CottonPredicate {
+
+        public AnyOf {
+            operands = List.copyOf(operands);
+        }
+
+        @Override
+        public boolean test(int cottonPercentage) {
+            for (CottonPredicate operand : operands) {
+                if (operand.test(cottonPercentage)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public CottonRanges ranges() {
+            CottonRanges ranges = CottonRanges.NONE;
+            for (CottonPredicate operand : operands) {
+                ranges = ranges.union(operand.ranges());
+            }
+            return ranges;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.javarest.socks.filter;
+
+import java.util.Arrays;
+
+/**
+ * Immutable set of integers stored as sorted, disjoint and non-adjacent inclusive ranges.
+ * Any cotton percentage filter reduces to such a set, which is what queries and indexes evaluate.
+ */
+public final class CottonRanges {
+
+    public static final CottonRanges NONE = new CottonRanges(new int[0]);
+
+    public static final CottonRanges ALL = new CottonRanges(new int[]{Integer.MIN_VALUE, Integer.MAX_VALUE});
+
+    /**
+     * Lower and upper bound of every range, in ascending order.
+     */
+    private final int[] bounds;
+
+    private CottonRanges(int[] bounds) {
+        this.bounds = bounds;
+    }
+
+    public static CottonRanges of(int min, int max) {
+        return min > max ? NONE : new CottonRanges(new int[]{min, max});
+    }
+
+    public int count() {
+        return bounds.length / 2;
+    }
+
+    public int lowerBound(int index) {
+        return bounds[2 * index];
+    }
+
+    public int upperBound(int index) {
+        return bounds[2 * index + 1];
+    }
+
+    public boolean contains(int value) {
+        int position = Arrays.binarySearch(bounds, value);
+        // A hit is a bound itself; a miss lies inside a range when an odd number of bounds precede it.
+        return position >= 0 || (-position - 1) % 2 == 1;
+    }
+
+    public CottonRanges intersect(CottonRanges other) {
+        int[] result = new int[bounds.length + other.bounds.length];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < bounds.length && j < other.bounds.length) {
+            int min = Math.max(bounds[i], other.bounds[j]);
+            int max = Math.min(bounds[i + 1], other.bounds[j + 1]);
+            if (min <= max) {
+                result[size++] = min;
+                result[size++] = max;
+            }
+            if (bounds[i + 1] < other.bounds[j + 1]) {
+                i += 2;
+            } else {
+                j += 2;
+            }
+        }
+        return create(result, size);
+    }
+
+    public CottonRanges union(CottonRanges other) {
+        int[] result = new int[bounds.length + other.bounds.length];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < bounds.length || j < other.bounds.length) {
+            int min;
+            int max;
+            if (j >= other.bounds.length || (i < bounds.length && bounds[i] <= other.bounds[j])) {
+                min = bounds[i];
+                max = bounds[i + 1];
+                i += 2;
+            } else {
+                min = other.bounds[j];
+                max = other.bounds[j + 1];
+                j += 2;
+            }
+            if (size > 0 && (long) min <= (long) result[size - 1] + 1) {
+                result[size - 1] = Math.max(result[size - 1], max);
+            } else {
+                result[size++] = min;
+                result[size++] = max;
+            }
+        }
+        return create(result, size);
+    }
+
+    public CottonRanges complement() {
+        int[] result = new int[bounds.length + 2];
+        int size = 0;
+        long next = Integer.MIN_VALUE;
+        for (int i = 0; i < bounds.length; i += 2) {
+            if (bounds[i] > next) {
+                result[size++] = (int) next;
+                result[size++] = bounds[i] - 1;
+            }
+            next = (long) bounds[i + 1] + 1;
+        }
+        if (next <= Integer.MAX_VALUE) {
+            result[size++] = (int) next;
+            result[size++] = Integer.MAX_VALUE;
+        }
+        return create(result, size);
+    }
+
+    private static CottonRanges create(int[] bounds, int size) {
+        return size == 0 ? NONE : new CottonRanges(bounds.length == size ? bounds : Arrays.copyOf(bounds, size));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof CottonRanges other && Arrays.equals(bounds, other.bounds);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bounds);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("[");
+        for (int i = 0; i < bounds.length; i += 2) {
+            text.append(i == 0 ? "" : ", ").append(bounds[i]).append("..").append(bounds[i + 1]);
+        }
+        return text.append(']').toString();
+    }
+}
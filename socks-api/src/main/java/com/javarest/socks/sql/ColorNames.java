@@ -0,0 +1,17 @@
+package com.javarest.socks.sql;
+
+import java.util.Locale;
+
+/**
+ * Canonical form of the names stored in the {@code colors} dictionary, shared by the servlet and the
+ * reactive application: trimmed and lower case, so that differently cased spellings share one id.
+ */
+public final class ColorNames {
+
+    public static String canonical(String color) {
+        return color == null ? null : color.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private ColorNames() {
+    }
+}
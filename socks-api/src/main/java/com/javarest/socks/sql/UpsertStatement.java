@@ -0,0 +1,44 @@
+package com.javarest.socks.sql;
+
+/**
+ * Dialect-specific forms of the income upsert, shared by the servlet and the reactive application.
+ * PostgreSQL uses {@code INSERT ... ON CONFLICT}, H2 (test profile) does not support it and falls back
+ * to the standard {@code MERGE}. Both rely on the unique (color_id, cotton_percentage) key, and both bump
+ * the version of an updated row so that concurrent optimistic updates of the entity fail instead of
+ * overwriting the added quantity.
+ */
+public enum UpsertStatement {
+
+    POSTGRES("""
+            INSERT INTO socks (color_id, cotton_percentage, quantity, version)
+            VALUES (:colorId, :cottonPercentage, :quantity, 0)
+            ON CONFLICT (color_id, cotton_percentage)
+            DO UPDATE SET quantity = socks.quantity + EXCLUDED.quantity, version = socks.version + 1"""),
+
+    H2("""
+            MERGE INTO socks s
+            USING (SELECT CAST(:colorId AS INT) AS color_id,
+                          CAST(:cottonPercentage AS INT) AS cotton_percentage,
+                          CAST(:quantity AS INT) AS quantity) i
+            ON s.color_id = i.color_id AND s.cotton_percentage = i.cotton_percentage
+            WHEN MATCHED THEN UPDATE SET quantity = s.quantity + i.quantity, version = s.version + 1
+            WHEN NOT MATCHED THEN INSERT (color_id, cotton_percentage, quantity, version)
+                VALUES (i.color_id, i.cotton_percentage, i.quantity, 0)""");
+
+    private final String sql;
+
+    UpsertStatement(String sql) {
+        this.sql = sql;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * @param databaseName The product name reported by the driver, such as {@code H2} or {@code PostgreSQL}.
+     */
+    public static UpsertStatement forDatabase(String databaseName) {
+        return "H2".equalsIgnoreCase(databaseName) ? H2 : POSTGRES;
+    }
+}
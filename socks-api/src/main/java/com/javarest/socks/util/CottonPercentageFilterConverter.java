@@ -8,6 +8,6 @@ import org.springframework.stereotype.Component;
 public class CottonPercentageFilterConverter implements Converter<String, CottonPercentageFilter> {
     @Override
     public CottonPercentageFilter convert(String source) {
-        return new CottonPercentageFilter(source);
+        return CottonPercentageFilter.of(source);
     }
 }
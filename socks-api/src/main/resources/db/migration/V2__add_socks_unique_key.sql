@@ -0,0 +1,22 @@
+-- Merge consignments stored more than once under the same key before the key becomes unique.
+UPDATE socks s
+SET quantity = d.total
+FROM (SELECT MIN(id) AS id, SUM(quantity) AS total
+      FROM socks
+      GROUP BY color, cotton_percentage
+      HAVING COUNT(*) > 1) d
+WHERE s.id = d.id;
+
+DELETE FROM socks s
+USING socks kept
+WHERE s.color = kept.color
+  AND s.cotton_percentage = kept.cotton_percentage
+  AND s.id > kept.id;
+
+-- Databases initialized by the former db-init.sql already have a plain unique constraint.
+ALTER TABLE socks DROP CONSTRAINT IF EXISTS socks_color_cotton_percentage_key;
+
+-- Covers lookups and sums by color: quantity is stored in the index, so they are index-only scans.
+-- Also the arbiter index of the income upsert (ON CONFLICT (color, cotton_percentage)).
+CREATE UNIQUE INDEX socks_color_cotton_percentage_key
+    ON socks (color, cotton_percentage) INCLUDE (quantity);
@@ -0,0 +1,3 @@
+-- Covers filters and sums by cotton percentage across all colors.
+CREATE INDEX socks_cotton_percentage_idx
+    ON socks (cotton_percentage) INCLUDE (quantity);
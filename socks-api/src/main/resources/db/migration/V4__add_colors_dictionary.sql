@@ -0,0 +1,40 @@
+CREATE TABLE colors
+(
+    id   SERIAL PRIMARY KEY,
+    name VARCHAR(50) NOT NULL,
+    CONSTRAINT colors_name_key UNIQUE (name)
+);
+
+INSERT INTO colors (name)
+SELECT DISTINCT LOWER(TRIM(color))
+FROM socks
+ORDER BY 1;
+
+ALTER TABLE socks ADD COLUMN color_id INT REFERENCES colors (id);
+
+UPDATE socks s
+SET color_id = c.id
+FROM colors c
+WHERE c.name = LOWER(TRIM(s.color));
+
+-- Spellings that differ only in case or surrounding spaces now share a key: merge their consignments.
+UPDATE socks s
+SET quantity = d.total
+FROM (SELECT MIN(id) AS id, SUM(quantity) AS total
+      FROM socks
+      GROUP BY color_id, cotton_percentage
+      HAVING COUNT(*) > 1) d
+WHERE s.id = d.id;
+
+DELETE FROM socks s
+USING socks kept
+WHERE s.color_id = kept.color_id
+  AND s.cotton_percentage = kept.cotton_percentage
+  AND s.id > kept.id;
+
+-- Dropping the column also drops the unique (color, cotton_percentage) index.
+ALTER TABLE socks DROP COLUMN color;
+ALTER TABLE socks ALTER COLUMN color_id SET NOT NULL;
+
+CREATE UNIQUE INDEX socks_color_id_cotton_percentage_key
+    ON socks (color_id, cotton_percentage) INCLUDE (quantity);
@@ -0,0 +1,15 @@
+CREATE TABLE stock_movements
+(
+    id                BIGSERIAL PRIMARY KEY,
+    color_id          INT       NOT NULL REFERENCES colors (id),
+    cotton_percentage INT       NOT NULL,
+    quantity          INT       NOT NULL,
+    created_at        TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    compacted         BOOLEAN   NOT NULL DEFAULT FALSE
+);
+
+-- Only movements that are not folded into the socks balances yet are read by stock checks and the compactor.
+CREATE INDEX stock_movements_pending_idx ON stock_movements (color_id, cotton_percentage) INCLUDE (quantity)
+    WHERE NOT compacted;
+
+CREATE INDEX stock_movements_compaction_idx ON stock_movements (id) WHERE NOT compacted;
@@ -0,0 +1,2 @@
+-- Optimistic lock of the consignment, see Socks#version.
+ALTER TABLE socks ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,7 @@
+-- Write-ahead log segments of the write-behind buffer whose incomes have been committed, see SocksIncomeBuffer.
+-- A segment is recorded in the transaction that writes its incomes, so replay can skip it after a crash.
+CREATE TABLE write_behind_segments
+(
+    name       VARCHAR(255) PRIMARY KEY,
+    flushed_at TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
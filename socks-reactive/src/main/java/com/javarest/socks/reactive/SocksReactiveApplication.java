@@ -0,0 +1,12 @@
+package com.javarest.socks.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class SocksReactiveApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(SocksReactiveApplication.class, args);
+    }
+}
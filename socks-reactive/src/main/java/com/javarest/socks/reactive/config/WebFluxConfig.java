@@ -0,0 +1,14 @@
+package com.javarest.socks.reactive.config;
+
+import com.javarest.socks.util.CottonPercentageFilterConverter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+@Configuration
+public class WebFluxConfig implements WebFluxConfigurer {
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        registry.addConverter(new CottonPercentageFilterConverter());
+    }
+}
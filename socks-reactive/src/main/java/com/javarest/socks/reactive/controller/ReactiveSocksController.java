@@ -0,0 +1,105 @@
+package com.javarest.socks.reactive.controller;
+
+import com.javarest.socks.dto.CottonPercentageFilter;
+import com.javarest.socks.dto.SocksRequest;
+import com.javarest.socks.dto.SocksResponse;
+import com.javarest.socks.reactive.service.ReactiveSocksService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/socks")
+@AllArgsConstructor
+public class ReactiveSocksController {
+
+    private final ReactiveSocksService service;
+
+    @Operation(summary = "Register the income of a new consignment of socks")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Socks income successfully registered."),
+            @ApiResponse(responseCode = "400", description = "Invalid request format or validation error."),
+            @ApiResponse(responseCode = "500", description = "Unexpected error during registration.")
+    })
+    @PostMapping("/income")
+    public Mono<ResponseEntity<String>> registerSocksIncome(@RequestBody @Valid SocksRequest income) {
+        return service.registerSocksIncome(income)
+                .thenReturn(ResponseEntity.ok("Socks income successfully registered."));
+    }
+
+    @Operation(summary = "Register the outcome of socks (socks are leaving stock)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Socks outcome successfully registered."),
+            @ApiResponse(responseCode = "404", description = "Socks not found for the provided parameters."),
+            @ApiResponse(responseCode = "400", description = "More socks requested than stock available."),
+            @ApiResponse(responseCode = "500", description = "Unexpected error during operation.")
+    })
+    @PostMapping("/outcome")
+    public Mono<ResponseEntity<String>> registerSocksOutcome(@RequestBody @Valid SocksRequest outcome) {
+        return service.registerSocksOutcome(outcome)
+                .thenReturn(ResponseEntity.ok("Socks outcome successfully registered."));
+    }
+
+    @Operation(description = "Update socks information by ID in the stock database")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Socks information has been successfully updated."),
+            @ApiResponse(responseCode = "404", description = "Socks with the specified ID were not found."),
+            @ApiResponse(responseCode = "400", description = "Invalid data provided in the request body."),
+            @ApiResponse(responseCode = "500", description = "Unexpected server error while updating socks information.")
+    })
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<String>> updateSocks(
+            @Parameter(description = "ID of the socks entry to update", required = true, example = "123")
+            @PathVariable Long id,
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Updated data for the socks, " +
+                    "including color, cotton percentage, and quantity", required = true)
+            @RequestBody @Valid SocksRequest dto) {
+        return service.updateSocksById(id, dto)
+                .thenReturn(ResponseEntity.ok("Socks information has been successfully updated."));
+    }
+
+    @Operation(summary = "Retrieve the total count of socks based on color and/or cotton percentage filters")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved socks count."),
+            @ApiResponse(responseCode = "400", description = "Invalid filter parameters provided."),
+            @ApiResponse(responseCode = "500", description = "Server error.")
+    })
+    @GetMapping
+    public Mono<ResponseEntity<Integer>> getSocksCount(
+            @Parameter(description = "Filter by color of socks", example = "blue")
+            @RequestParam(required = false) String color,
+            @Parameter(description = "Filter by cotton percentage of socks", example = "50")
+            @RequestParam(required = false, name = "cottonPercentage") CottonPercentageFilter filter) {
+        return service.getSocksCount(color, filter)
+                .map(ResponseEntity::ok);
+    }
+
+    @Operation(summary = "Retrieve a list of all socks, optionally sorted and filtered",
+            description = "The JSON array is written row by row while the rows are read from the database.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the list of socks."),
+            @ApiResponse(responseCode = "400", description = "Invalid filter or sorting parameter provided."),
+            @ApiResponse(responseCode = "500", description = "Internal server error.")
+    })
+    @GetMapping(value = "/all", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<SocksResponse> getSocksSorted(
+            @Parameter(description = "Filter by color of socks. If not specified, all colors are included.", example = "red")
+            @RequestParam(required = false) String color,
+            @Parameter(description = "Filter parameters for cotton percentage (e.g., range or operator)", example = "<")
+            @RequestParam(required = false, name = "cottonPercentage") CottonPercentageFilter filter,
+            @Parameter(description = "Field by which to sort results (e.g., 'color', 'quantity').", example = "quantity")
+            @RequestParam(required = false, name = "sortBy") String sortField,
+            @Parameter(description = "Direction to sort: 'asc' for ascending or 'desc' for descending.", example = "asc")
+            @RequestParam(required = false) String sortDirection
+    ) {
+        return service.getAllSocksSorted(color, filter, sortField, sortDirection);
+    }
+}
@@ -0,0 +1,79 @@
+package com.javarest.socks.reactive.exception;
+
+import com.javarest.socks.exception.exceptions.*;
+import com.javarest.socks.exception.response.ErrorResponse;
+import jakarta.validation.ValidationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ServerWebInputException;
+
+import static com.javarest.socks.exception.constant.ErrorMessage.*;
+
+/**
+ * Maps the shared socks exceptions to the same statuses and messages as the servlet application does.
+ * {@link ServerWebInputException} covers invalid request bodies and parameters, including failed bean validation.
+ */
+@RestControllerAdvice
+@Slf4j
+public class ReactiveExceptionHandler {
+
+    @ExceptionHandler(SocksNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleSocksNotFoundException() {
+        ErrorResponse response = new ErrorResponse(SOCKS_NOT_FOUND.getMsg());
+        return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body(response);
+    }
+
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<ErrorResponse> handleInsufficientStockException() {
+        ErrorResponse response = new ErrorResponse(INSUFFICIENT_STOCK.getMsg());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(response);
+    }
+
+    @ExceptionHandler({UnsupportedOperationException.class, ServerWebInputException.class, ValidationException.class})
+    public ResponseEntity<ErrorResponse> handleUnsupportedOperatorException() {
+        ErrorResponse response = new ErrorResponse(UNSUPPORTED_OPERATOR.getMsg());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(response);
+    }
+
+    @ExceptionHandler(NoFilterParametersException.class)
+    public ResponseEntity<ErrorResponse> handleNoFilterParametersException() {
+        ErrorResponse response = new ErrorResponse(NO_FILTERS.getMsg());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(response);
+    }
+
+    @ExceptionHandler(InvalidSortDirectionException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidSortDirectionException() {
+        ErrorResponse response = new ErrorResponse(INVALID_SORT_DIRECTION.getMsg());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(response);
+    }
+
+    @ExceptionHandler(InvalidPageRequestException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidPageRequestException() {
+        ErrorResponse response = new ErrorResponse(INVALID_PAGE_REQUEST.getMsg());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(response);
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleGeneralException(Exception e) {
+        log.error("Unexpected error while handling a socks request.", e);
+        ErrorResponse response = new ErrorResponse(GENERIC_ERROR.getMsg());
+        return ResponseEntity
+                .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(response);
+    }
+}
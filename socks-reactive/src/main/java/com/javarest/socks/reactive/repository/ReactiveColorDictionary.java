@@ -0,0 +1,76 @@
+package com.javarest.socks.reactive.repository;
+
+import com.javarest.socks.sql.ColorNames;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Non-blocking interning cache of the {@code colors} dictionary shared with the servlet application:
+ * color names in the canonical form of {@link ColorNames} to the ids stored in {@code socks.color_id}.
+ * Statements run outside of any transaction, so a new color is committed as soon as it is inserted.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveColorDictionary {
+
+    private static final String SELECT_ID = "SELECT id FROM colors WHERE name = :name";
+
+    private static final String INSERT = "INSERT INTO colors (name) VALUES (:name)";
+
+    private final DatabaseClient databaseClient;
+
+    private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<>();
+
+    /**
+     * Emits the id of the color, adding the color to the dictionary if it is not there yet.
+     */
+    public Mono<Integer> intern(String color) {
+        String name = ColorNames.canonical(color);
+        Integer id = ids.get(name);
+        if (id != null) {
+            return Mono.just(id);
+        }
+        return selectId(name)
+                .switchIfEmpty(Mono.defer(() -> insert(name)))
+                // Added concurrently by another request or application instance.
+                .onErrorResume(DataIntegrityViolationException.class, e -> selectId(name))
+                .doOnNext(found -> ids.putIfAbsent(name, found));
+    }
+
+    /**
+     * Emits the id of the color, or completes empty if no socks of this color were ever stored.
+     */
+    public Mono<Integer> find(String color) {
+        String name = ColorNames.canonical(color);
+        Integer id = ids.get(name);
+        if (id != null) {
+            return Mono.just(id);
+        }
+        return selectId(name)
+                .doOnNext(found -> ids.putIfAbsent(name, found));
+    }
+
+    private Mono<Integer> selectId(String name) {
+        return databaseClient.sql(SELECT_ID)
+                .bind("name", name)
+                .map(row -> row.get("id", Integer.class))
+                .one();
+    }
+
+    private Mono<Integer> insert(String name) {
+        return databaseClient.sql(INSERT)
+                .bind("name", name)
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Integer.class))
+                .one()
+                .doOnNext(id -> log.info("Color {} has been added to the dictionary with ID {}.", name, id));
+    }
+}
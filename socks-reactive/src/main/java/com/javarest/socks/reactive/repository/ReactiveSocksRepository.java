@@ -0,0 +1,246 @@
+package com.javarest.socks.reactive.repository;
+
+import com.javarest.socks.dto.CottonPercentageFilter;
+import com.javarest.socks.dto.SocksResponse;
+import com.javarest.socks.sql.UpsertStatement;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Socks statements of the reactive application, written against the schema migrated by the servlet application.
+ * Cotton percentage filters are rendered as one condition over their ranges, as in the servlet application.
+ * Stock is the balance plus the movements the servlet ledger mode has not compacted yet: counts and outcomes
+ * include them, updates settle them, and the listing shows balances, as in the servlet application.
+ */
+@Repository
+public class ReactiveSocksRepository {
+
+    /**
+     * Sortable fields of the listing and the columns they sort by.
+     */
+    public static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "s.id",
+            "color", "c.name",
+            "cottonPercentage", "s.cotton_percentage",
+            "quantity", "s.quantity");
+
+    private static final String DECREASE = """
+            UPDATE socks SET quantity = quantity - :quantity, version = version + 1
+            WHERE color_id = :colorId AND cotton_percentage = :cottonPercentage AND quantity >= :quantity""";
+
+    private static final String LOCK_BALANCE = """
+            SELECT quantity FROM socks
+            WHERE color_id = :colorId AND cotton_percentage = :cottonPercentage
+            FOR UPDATE""";
+
+    private static final String LOCK_BY_ID = """
+            SELECT color_id, cotton_percentage FROM socks
+            WHERE id = :id
+            FOR UPDATE""";
+
+    private static final String SUM_PENDING = """
+            SELECT COALESCE(SUM(quantity), 0) AS total, COUNT(*) AS movements FROM stock_movements
+            WHERE compacted = FALSE AND color_id = :colorId AND cotton_percentage = :cottonPercentage""";
+
+    private static final String APPEND_MOVEMENT = """
+            INSERT INTO stock_movements (color_id, cotton_percentage, quantity)
+            VALUES (:colorId, :cottonPercentage, :quantity)""";
+
+    private static final String SETTLE_PENDING = """
+            UPDATE stock_movements SET compacted = TRUE
+            WHERE compacted = FALSE AND color_id = :colorId AND cotton_percentage = :cottonPercentage""";
+
+    private static final String UPDATE_BY_ID = """
+            UPDATE socks SET color_id = :colorId, cotton_percentage = :cottonPercentage, quantity = :quantity,
+                             version = version + 1
+            WHERE id = :id""";
+
+    /**
+     * Sums the balances together with the ledger movements the servlet application has not compacted yet.
+     */
+    private static final String SUM = """
+            SELECT COALESCE(SUM(quantity), 0) AS total
+            FROM (SELECT color_id, cotton_percentage, quantity FROM socks
+                  UNION ALL
+                  SELECT color_id, cotton_percentage, quantity FROM stock_movements WHERE compacted = FALSE) stock
+            WHERE\s""";
+
+    private static final String LIST = """
+            SELECT s.id, c.name AS color, s.cotton_percentage, s.quantity
+            FROM socks s JOIN colors c ON c.id = s.color_id""";
+
+    private static final String COLOR_CONDITION = " AND color_id = :colorId";
+
+    private static final String LIST_COLOR_CONDITION = " AND s.color_id = :colorId";
+
+    private final DatabaseClient databaseClient;
+
+    private final String upsert;
+
+    public ReactiveSocksRepository(DatabaseClient databaseClient, ConnectionFactory connectionFactory) {
+        this.databaseClient = databaseClient;
+        this.upsert = UpsertStatement.forDatabase(connectionFactory.getMetadata().getName()).getSql();
+    }
+
+    public Mono<Long> upsertQuantity(int colorId, int cottonPercentage, int quantity) {
+        return databaseClient.sql(upsert)
+                .bind("colorId", colorId)
+                .bind("cottonPercentage", cottonPercentage)
+                .bind("quantity", quantity)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Decreases the quantity only if enough socks are in stock, in one statement.
+     *
+     * @return The number of updated rows: 1 on success, 0 if the consignment is missing or has insufficient stock.
+     */
+    public Mono<Long> decreaseQuantityIfAvailable(int colorId, int cottonPercentage, int quantity) {
+        return databaseClient.sql(DECREASE)
+                .bind("colorId", colorId)
+                .bind("cottonPercentage", cottonPercentage)
+                .bind("quantity", quantity)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Locks the balance row of the consignment until the surrounding transaction ends.
+     *
+     * @return The balance quantity, or empty if the consignment has no balance row.
+     */
+    public Mono<Integer> lockBalance(int colorId, int cottonPercentage) {
+        return databaseClient.sql(LOCK_BALANCE)
+                .bind("colorId", colorId)
+                .bind("cottonPercentage", cottonPercentage)
+                .map(row -> row.get("quantity", Integer.class))
+                .one();
+    }
+
+    /**
+     * Locks the consignment row until the surrounding transaction ends.
+     *
+     * @return The consignment the row currently belongs to, or empty if there is no row with the id.
+     */
+    public Mono<Consignment> lockById(long id) {
+        return databaseClient.sql(LOCK_BY_ID)
+                .bind("id", id)
+                .map(row -> new Consignment(
+                        row.get("color_id", Integer.class), row.get("cotton_percentage", Integer.class)))
+                .one();
+    }
+
+    /**
+     * Sums the ledger movements of the consignment that the servlet application has not compacted yet.
+     */
+    public Mono<PendingMovements> sumPending(int colorId, int cottonPercentage) {
+        return databaseClient.sql(SUM_PENDING)
+                .bind("colorId", colorId)
+                .bind("cottonPercentage", cottonPercentage)
+                .map(row -> new PendingMovements(row.get("movements", Long.class), row.get("total", Long.class)))
+                .one();
+    }
+
+    /**
+     * Appends a signed quantity change to the ledger, for the servlet compactor to fold into the balance.
+     */
+    public Mono<Long> appendMovement(int colorId, int cottonPercentage, int quantity) {
+        return databaseClient.sql(APPEND_MOVEMENT)
+                .bind("colorId", colorId)
+                .bind("cottonPercentage", cottonPercentage)
+                .bind("quantity", quantity)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Marks the pending movements of the consignment as compacted without adding them to its balance,
+     * as the servlet {@code StockLedger#settle} does before the balance is overwritten.
+     */
+    public Mono<Long> settlePending(int colorId, int cottonPercentage) {
+        return databaseClient.sql(SETTLE_PENDING)
+                .bind("colorId", colorId)
+                .bind("cottonPercentage", cottonPercentage)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> updateById(long id, int colorId, int cottonPercentage, int quantity) {
+        return databaseClient.sql(UPDATE_BY_ID)
+                .bind("id", id)
+                .bind("colorId", colorId)
+                .bind("cottonPercentage", cottonPercentage)
+                .bind("quantity", quantity)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * @param colorId The color id, or null to sum all colors.
+     */
+    public Mono<Long> sumQuantity(Integer colorId, CottonPercentageFilter filter) {
+        if (filter.matchesNothing()) {
+            return Mono.just(0L);
+        }
+        String sql = SUM + filter.toSql("cotton_percentage");
+        DatabaseClient.GenericExecuteSpec spec = bindFilter(
+                databaseClient.sql(colorId == null ? sql : sql + COLOR_CONDITION), filter);
+        if (colorId != null) {
+            spec = spec.bind("colorId", colorId);
+        }
+        return spec.map(row -> row.get("total", Long.class)).one();
+    }
+
+    /**
+     * @param colorId   The color id, or null to list all colors.
+     * @param sortField One of {@link #SORT_COLUMNS}; it is part of the statement text, so it must be validated.
+     */
+    public Flux<SocksResponse> findMatching(Integer colorId, CottonPercentageFilter filter,
+                                            String sortField, Sort.Direction direction) {
+        String column = SORT_COLUMNS.get(sortField);
+        if (column == null) {
+            throw new IllegalArgumentException("Unsupported sort field: " + sortField);
+        }
+        if (filter.matchesNothing()) {
+            return Flux.empty();
+        }
+        String sql = LIST + " WHERE " + filter.toSql("s.cotton_percentage") + (colorId == null ? "" : LIST_COLOR_CONDITION)
+                + " ORDER BY " + column + " " + direction.name() + ", s.id " + direction.name();
+
+        DatabaseClient.GenericExecuteSpec spec = bindFilter(databaseClient.sql(sql), filter);
+        if (colorId != null) {
+            spec = spec.bind("colorId", colorId);
+        }
+        return spec.map(row -> new SocksResponse(
+                        row.get("id", Long.class),
+                        row.get("color", String.class),
+                        row.get("cotton_percentage", Integer.class),
+                        row.get("quantity", Integer.class)))
+                .all();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindFilter(DatabaseClient.GenericExecuteSpec spec,
+                                                               CottonPercentageFilter filter) {
+        for (Map.Entry<String, Integer> parameter : filter.getSqlParameters().entrySet()) {
+            spec = spec.bind(parameter.getKey(), parameter.getValue());
+        }
+        return spec;
+    }
+
+    public record Consignment(int colorId, int cottonPercentage) {
+    }
+
+    /**
+     * @param count    Number of pending movements.
+     * @param quantity Sum of their signed quantities.
+     */
+    public record PendingMovements(long count, long quantity) {
+    }
+}
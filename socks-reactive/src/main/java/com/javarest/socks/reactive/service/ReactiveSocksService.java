@@ -0,0 +1,19 @@
+package com.javarest.socks.reactive.service;
+
+import com.javarest.socks.dto.CottonPercentageFilter;
+import com.javarest.socks.dto.SocksRequest;
+import com.javarest.socks.dto.SocksResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveSocksService {
+    Mono<Void> registerSocksIncome(SocksRequest socks);
+
+    Mono<Void> registerSocksOutcome(SocksRequest socks);
+
+    Mono<Void> updateSocksById(Long id, SocksRequest updatedSocks);
+
+    Flux<SocksResponse> getAllSocksSorted(String color, CottonPercentageFilter filter, String sortField, String sortDirection);
+
+    Mono<Integer> getSocksCount(String color, CottonPercentageFilter cottonPercentageFilter);
+}
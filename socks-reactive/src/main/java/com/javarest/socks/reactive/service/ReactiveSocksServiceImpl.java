@@ -0,0 +1,176 @@
+package com.javarest.socks.reactive.service;
+
+import com.javarest.socks.dto.CottonPercentageFilter;
+import com.javarest.socks.dto.SocksRequest;
+import com.javarest.socks.dto.SocksResponse;
+import com.javarest.socks.exception.constant.ErrorMessage;
+import com.javarest.socks.exception.exceptions.*;
+import com.javarest.socks.reactive.repository.ReactiveColorDictionary;
+import com.javarest.socks.reactive.repository.ReactiveSocksRepository;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of the servlet {@code SocksServiceImpl}: the same validation rules, error types
+ * and stock updates, executed over R2DBC. Outcomes and updates account for the pending movements of the
+ * servlet ledger mode, so both applications can share a database with {@code socks.ledger.enabled}.
+ */
+@Service
+@AllArgsConstructor
+@Slf4j
+public class ReactiveSocksServiceImpl implements ReactiveSocksService {
+
+    private final ReactiveSocksRepository repository;
+
+    private final ReactiveColorDictionary colorDictionary;
+
+    private final TransactionalOperator transactionalOperator;
+
+    @Override
+    public Mono<Void> registerSocksIncome(SocksRequest socks) {
+        return colorDictionary.intern(socks.getColor())
+                .flatMap(colorId -> repository.upsertQuantity(colorId, socks.getCottonPercentage(), socks.getQuantity()))
+                .doOnSuccess(updated -> log.debug("Socks income: Color = {}, Cotton percentage = {}, Quantity = {}",
+                        socks.getColor(), socks.getCottonPercentage(), socks.getQuantity()))
+                .then();
+    }
+
+    /**
+     * Locks the balance row and checks the balance together with the pending ledger movements of the
+     * consignment, in one transaction. The balance is decreased when it covers the outcome alone; otherwise
+     * the outcome is appended to the ledger, as the servlet ledger mode does.
+     */
+    @Override
+    public Mono<Void> registerSocksOutcome(SocksRequest socks) {
+        return colorDictionary.find(socks.getColor())
+                .switchIfEmpty(Mono.error(() -> new SocksNotFoundException(ErrorMessage.SOCKS_NOT_FOUND.getMsg())))
+                .flatMap(colorId -> takeStock(colorId, socks.getCottonPercentage(), socks.getQuantity())
+                        .as(transactionalOperator::transactional))
+                .doOnSuccess(done -> log.debug("Socks outcome: Color = {}, Cotton percentage = {}, Quantity = {}",
+                        socks.getColor(), socks.getCottonPercentage(), socks.getQuantity()));
+    }
+
+    private Mono<Void> takeStock(int colorId, int cottonPercentage, int quantity) {
+        return lockBalance(colorId, cottonPercentage)
+                .switchIfEmpty(Mono.error(() -> new SocksNotFoundException(ErrorMessage.SOCKS_NOT_FOUND.getMsg())))
+                // Read after the lock, so that it sees the movements of the outcomes that held it before.
+                .flatMap(balance -> repository.sumPending(colorId, cottonPercentage)
+                        .flatMap(pending -> {
+                            if (balance + pending.quantity() < quantity) {
+                                return Mono.<Long>error(new InsufficientStockException(
+                                        ErrorMessage.INSUFFICIENT_STOCK.getMsg()));
+                            }
+                            return balance >= quantity
+                                    ? repository.decreaseQuantityIfAvailable(colorId, cottonPercentage, quantity)
+                                    : repository.appendMovement(colorId, cottonPercentage, -quantity);
+                        }))
+                .then();
+    }
+
+    /**
+     * Locks the balance row, creating an empty one if the consignment only exists in pending movements so far.
+     */
+    private Mono<Integer> lockBalance(int colorId, int cottonPercentage) {
+        return repository.lockBalance(colorId, cottonPercentage)
+                .switchIfEmpty(Mono.defer(() -> repository.sumPending(colorId, cottonPercentage)
+                        .filter(pending -> pending.count() > 0)
+                        .flatMap(pending -> repository.upsertQuantity(colorId, cottonPercentage, 0)
+                                .then(repository.lockBalance(colorId, cottonPercentage)))));
+    }
+
+    /**
+     * Overwrites a consignment in one transaction. Pending ledger movements of the consignment the row belonged
+     * to are superseded by the new quantity, as in the servlet application.
+     */
+    @Override
+    public Mono<Void> updateSocksById(Long id, SocksRequest updatedSocks) {
+        return colorDictionary.intern(updatedSocks.getColor())
+                .flatMap(colorId -> repository.lockById(id)
+                        .switchIfEmpty(Mono.error(() -> new SocksNotFoundException(
+                                "Socks with ID " + id + " was not found.")))
+                        .flatMap(previous -> repository.settlePending(previous.colorId(), previous.cottonPercentage()))
+                        .then(repository.updateById(
+                                id, colorId, updatedSocks.getCottonPercentage(), updatedSocks.getQuantity()))
+                        .as(transactionalOperator::transactional))
+                .then()
+                .doOnSuccess(done -> log.debug(
+                        "Socks consignment has been updated: ID = {}, Color = {}, Cotton percentage = {}, Quantity = {}",
+                        id, updatedSocks.getColor(), updatedSocks.getCottonPercentage(), updatedSocks.getQuantity()));
+    }
+
+    /**
+     * Emits the socks matching the filters in the requested order, row by row as they are read from the database.
+     *
+     * @throws InvalidPageRequestException If the sort field is not supported.
+     * @throws InvalidSortDirectionException If the sort direction is neither "asc" nor "desc".
+     */
+    @Override
+    public Flux<SocksResponse> getAllSocksSorted(String color, CottonPercentageFilter filter,
+                                                 String sortField, String sortDirection) {
+        log.debug("Listing socks: color={}, cottonPercentageFilter={}, sortField={}, sortDirection={}",
+                color, filter, sortField, sortDirection);
+
+        Sort.Order order;
+        try {
+            order = getSortOrder(sortField, sortDirection);
+        } catch (RuntimeException e) {
+            return Flux.error(e);
+        }
+        if (color == null) {
+            return repository.findMatching(null, orAny(filter),
+                    order.getProperty(), order.getDirection());
+        }
+        // Colors that were never stored can not match.
+        return colorDictionary.find(color)
+                .flatMapMany(colorId -> repository.findMatching(colorId, orAny(filter),
+                        order.getProperty(), order.getDirection()));
+    }
+
+    /**
+     * Emits the total quantity of socks matching the color and/or cotton percentage filter.
+     *
+     * @throws NoFilterParametersException Signalled when both filter parameters are missing.
+     */
+    @Override
+    public Mono<Integer> getSocksCount(String color, CottonPercentageFilter cottonPercentageFilter) {
+        if ((color == null || color.isBlank()) && cottonPercentageFilter == null) {
+            return Mono.error(new NoFilterParametersException("Zero filter parameters"));
+        }
+
+        CottonPercentageFilter filter = orAny(cottonPercentageFilter);
+        Mono<Long> sum = color == null
+                ? repository.sumQuantity(null, filter)
+                : colorDictionary.find(color)
+                        .flatMap(colorId -> repository.sumQuantity(colorId, filter))
+                        .defaultIfEmpty(0L);
+        return sum.map(Math::toIntExact)
+                .doOnNext(count -> log.debug("Counted {} socks: color={}, cottonPercentageFilter={}",
+                        count, color, cottonPercentageFilter));
+    }
+
+    private static CottonPercentageFilter orAny(CottonPercentageFilter filter) {
+        return filter == null ? CottonPercentageFilter.ANY : filter;
+    }
+
+    private Sort.Order getSortOrder(String sortField, String sortDirection) {
+        if (sortField == null || sortField.isBlank()) {
+            sortField = "color";
+        }
+        if (sortDirection == null || sortDirection.isBlank()) {
+            sortDirection = "ASC";
+        }
+        if (!sortDirection.equalsIgnoreCase("DESC") && !sortDirection.equalsIgnoreCase("ASC")) {
+            throw new InvalidSortDirectionException("Unsupported sorting direction - " + sortDirection);
+        }
+        if (!ReactiveSocksRepository.SORT_COLUMNS.containsKey(sortField)) {
+            throw new InvalidPageRequestException(ErrorMessage.INVALID_PAGE_REQUEST.getMsg());
+        }
+        Sort.Direction direction = "DESC".equalsIgnoreCase(sortDirection) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return new Sort.Order(direction, sortField);
+    }
+}
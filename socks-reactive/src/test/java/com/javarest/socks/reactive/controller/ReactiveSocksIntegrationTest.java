@@ -0,0 +1,226 @@
+package com.javarest.socks.reactive.controller;
+
+import com.javarest.socks.dto.SocksRequest;
+import com.javarest.socks.exception.constant.ErrorMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Runs against PostgreSQL migrated by the Flyway migrations of socks-api, so the statements are tested
+ * on the schema the servlet application creates.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@Testcontainers
+class ReactiveSocksIntegrationTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    void setUp() {
+        databaseClient.sql("DELETE FROM stock_movements").then().block();
+        databaseClient.sql("DELETE FROM socks").then().block();
+
+        income("red", 35, 15);
+        income("white", 60, 10);
+        income("yellow", 20, 43);
+    }
+
+    @Test
+    @DisplayName("Income is added to existing socks and differently cased colors share one consignment")
+    void shouldUpsertSocksOnIncome() {
+        // Act
+        income(" Red ", 35, 5);
+        income("green", 35, 7);
+
+        // Assert
+        assertEquals(20, count("color=RED"));
+        assertEquals(7, count("color=green"));
+    }
+
+    @Test
+    @DisplayName("Outcome decreases stock and never drives it negative")
+    void shouldDecreaseStockOnOutcome() {
+        // Arrange
+        SocksRequest outcome = SocksRequest.builder().color("white").cottonPercentage(60).quantity(6).build();
+
+        // Act
+        client.post().uri("/api/socks/outcome").bodyValue(outcome).exchange()
+                .expectStatus().isOk();
+
+        // Assert
+        client.post().uri("/api/socks/outcome").bodyValue(outcome).exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.errorMsg").isEqualTo(ErrorMessage.INSUFFICIENT_STOCK.getMsg());
+        assertEquals(4, count("color=white"));
+    }
+
+    @Test
+    @DisplayName("Outcome of an unknown color is rejected as not found")
+    void shouldRejectOutcomeOfUnknownColor() {
+        // Arrange
+        SocksRequest outcome = SocksRequest.builder().color("purple").cottonPercentage(60).quantity(1).build();
+
+        // Act & Assert
+        client.post().uri("/api/socks/outcome").bodyValue(outcome).exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("Less-than filter is applied the same way to listing and counting")
+    void shouldApplyLessThanFilterToListAndCount() {
+        // Act & Assert
+        client.get()
+                .uri("/api/socks/all?cottonPercentage=<60&sortBy=cottonPercentage&sortDirection=asc")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$[*].color").isEqualTo(List.of("yellow", "red"));
+        assertEquals(58, count("cottonPercentage=<60"));
+    }
+
+    @Test
+    @DisplayName("Count includes ledger movements that are not compacted yet")
+    void shouldCountPendingLedgerMovements() {
+        // Arrange
+        movement("red", 35, 10, false);
+        movement("red", 35, -4, false);
+        movement("red", 35, 100, true);
+
+        // Act & Assert
+        assertEquals(21, count("color=red"));
+        assertEquals(64, count("cottonPercentage=<60"));
+    }
+
+    @Test
+    @DisplayName("Outcome is covered by pending ledger incomes and appended to the ledger")
+    void shouldCoverOutcomeWithPendingIncomes() {
+        // Arrange
+        movement("red", 35, 10, false);
+        income("green", 10, 1);
+        movement("green", 80, 5, false);
+
+        // Act
+        outcome("red", 35, 20).expectStatus().isOk();
+        outcome("green", 80, 3).expectStatus().isOk();
+
+        // Assert
+        assertEquals(5, count("color=red"));
+        assertEquals(3, count("color=green"));
+        assertEquals(15, balance("red", 35));
+    }
+
+    @Test
+    @DisplayName("Outcome is rejected when pending ledger outcomes have taken the stock")
+    void shouldRejectOutcomeTakenByPendingOutcomes() {
+        // Arrange
+        movement("white", 60, -8, false);
+
+        // Act & Assert
+        outcome("white", 60, 5).expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.errorMsg").isEqualTo(ErrorMessage.INSUFFICIENT_STOCK.getMsg());
+        assertEquals(2, count("color=white"));
+    }
+
+    @Test
+    @DisplayName("Update supersedes the pending ledger movements of the consignment")
+    void shouldSettlePendingMovementsOnUpdate() {
+        // Arrange
+        movement("red", 35, 10, false);
+        Long id = databaseClient.sql("""
+                        SELECT s.id FROM socks s JOIN colors c ON c.id = s.color_id
+                        WHERE c.name = 'red' AND s.cotton_percentage = 35""")
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .block();
+
+        // Act
+        client.put().uri("/api/socks/" + id)
+                .bodyValue(SocksRequest.builder().color("red").cottonPercentage(35).quantity(7).build())
+                .exchange()
+                .expectStatus().isOk();
+
+        // Assert
+        assertEquals(7, count("color=red"));
+    }
+
+    @Test
+    @DisplayName("Count without filters is rejected")
+    void shouldRejectCountWithoutFilters() {
+        // Act & Assert
+        client.get().uri("/api/socks").exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.errorMsg").isEqualTo(ErrorMessage.NO_FILTERS.getMsg());
+    }
+
+    private void income(String color, int cottonPercentage, int quantity) {
+        client.post().uri("/api/socks/income")
+                .bodyValue(SocksRequest.builder().color(color).cottonPercentage(cottonPercentage).quantity(quantity).build())
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    private WebTestClient.ResponseSpec outcome(String color, int cottonPercentage, int quantity) {
+        return client.post().uri("/api/socks/outcome")
+                .bodyValue(SocksRequest.builder().color(color).cottonPercentage(cottonPercentage).quantity(quantity).build())
+                .exchange();
+    }
+
+    private int balance(String color, int cottonPercentage) {
+        Integer quantity = databaseClient.sql("""
+                        SELECT s.quantity FROM socks s JOIN colors c ON c.id = s.color_id
+                        WHERE c.name = :color AND s.cotton_percentage = :cottonPercentage""")
+                .bind("color", color)
+                .bind("cottonPercentage", cottonPercentage)
+                .map(row -> row.get("quantity", Integer.class))
+                .one()
+                .block();
+        assertNotNull(quantity);
+        return quantity;
+    }
+
+    private void movement(String color, int cottonPercentage, int quantity, boolean compacted) {
+        databaseClient.sql("""
+                        INSERT INTO stock_movements (color_id, cotton_percentage, quantity, compacted)
+                        SELECT id, :cottonPercentage, :quantity, :compacted FROM colors WHERE name = :color""")
+                .bind("color", color)
+                .bind("cottonPercentage", cottonPercentage)
+                .bind("quantity", quantity)
+                .bind("compacted", compacted)
+                .then()
+                .block();
+    }
+
+    private int count(String query) {
+        Integer count = client.get().uri("/api/socks?" + query)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Integer.class)
+                .returnResult()
+                .getResponseBody();
+        assertNotNull(count);
+        return count;
+    }
+}
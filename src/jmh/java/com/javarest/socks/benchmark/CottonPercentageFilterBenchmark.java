@@ -0,0 +1,22 @@
+package com.javarest.socks.benchmark;
+
+import com.javarest.socks.dto.CottonPercentageFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Parsing of the {@code cottonPercentage} query parameter, done once per filtered request.
+ */
+@State(Scope.Benchmark)
+public class CottonPercentageFilterBenchmark {
+
+    @Param({"30-70", ">50", "<20", "=35"})
+    private String expression;
+
+    @Benchmark
+    public CottonPercentageFilter parse() {
+        return new CottonPercentageFilter(expression);
+    }
+}
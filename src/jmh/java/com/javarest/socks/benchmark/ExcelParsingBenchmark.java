@@ -0,0 +1,70 @@
+package com.javarest.socks.benchmark;
+
+import com.javarest.socks.util.ExcelUtils;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streaming parse of a generated batch upload workbook with {@link ExcelUtils#parseExcelFile(File, java.util.function.Consumer)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ExcelParsingBenchmark {
+
+    private static final String[] COLORS = {"red", "white", "black", "blue", "green", "yellow", "grey", "violet"};
+
+    @Param({"10000", "100000"})
+    private int rows;
+
+    private File workbook;
+
+    @Setup(Level.Trial)
+    public void createWorkbook() throws IOException {
+        workbook = Files.createTempFile("socks-benchmark-", ".xlsx").toFile();
+        try (SXSSFWorkbook wb = new SXSSFWorkbook(1000); OutputStream out = new FileOutputStream(workbook)) {
+            Sheet sheet = wb.createSheet();
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("color");
+            header.createCell(1).setCellValue("cottonPercentage");
+            header.createCell(2).setCellValue("quantity");
+            for (int i = 1; i <= rows; i++) {
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue(COLORS[i % COLORS.length]);
+                row.createCell(1).setCellValue(i % 101);
+                row.createCell(2).setCellValue(1 + i % 50);
+            }
+            wb.write(out);
+            wb.dispose();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteWorkbook() throws IOException {
+        Files.deleteIfExists(workbook.toPath());
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        ExcelUtils.parseExcelFile(workbook, blackhole::consume);
+    }
+}
@@ -0,0 +1,94 @@
+package com.javarest.socks.benchmark;
+
+import com.javarest.socks.SocksRestApplication;
+import com.javarest.socks.dto.CottonPercentageFilter;
+import com.javarest.socks.dto.SocksRequest;
+import com.javarest.socks.service.SocksServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Income, outcome and count of {@link SocksServiceImpl} against the embedded H2 database of the {@code test}
+ * profile, without the web layer. Mutations go round-robin over {@link #CONSIGNMENTS} consignments, each seeded
+ * with enough stock that outcomes never run out during a run.
+ */
+@State(Scope.Benchmark)
+public class SocksServiceBenchmark {
+
+    private static final int CONSIGNMENTS = 64;
+
+    private static final int INITIAL_STOCK = 1_000_000_000;
+
+    private static final String[] COLORS = {"red", "white", "black", "blue", "green", "yellow", "grey", "violet"};
+
+    private final CottonPercentageFilter filter = new CottonPercentageFilter("30-70");
+
+    private ConfigurableApplicationContext context;
+
+    private SocksServiceImpl service;
+
+    private SocksRequest[] incomes;
+
+    private SocksRequest[] outcomes;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(SocksRestApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run();
+        service = context.getBean(SocksServiceImpl.class);
+
+        incomes = new SocksRequest[CONSIGNMENTS];
+        outcomes = new SocksRequest[CONSIGNMENTS];
+        for (int i = 0; i < CONSIGNMENTS; i++) {
+            String color = COLORS[i % COLORS.length];
+            int cottonPercentage = i * 100 / CONSIGNMENTS;
+            service.registerSocksIncome(request(color, cottonPercentage, INITIAL_STOCK));
+            incomes[i] = request(color, cottonPercentage, 1);
+            outcomes[i] = request(color, cottonPercentage, 1);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public void income() {
+        service.registerSocksIncome(incomes[nextConsignment()]);
+    }
+
+    @Benchmark
+    public void outcome() {
+        service.registerSocksOutcome(outcomes[nextConsignment()]);
+    }
+
+    @Benchmark
+    public int count() {
+        return service.getSocksCount(COLORS[nextConsignment() % COLORS.length], filter);
+    }
+
+    private int nextConsignment() {
+        next = (next + 1) % CONSIGNMENTS;
+        return next;
+    }
+
+    private static SocksRequest request(String color, int cottonPercentage, int quantity) {
+        return SocksRequest.builder()
+                .color(color)
+                .cottonPercentage(cottonPercentage)
+                .quantity(quantity)
+                .build();
+    }
+}
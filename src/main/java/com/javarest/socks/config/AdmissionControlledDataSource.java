@@ -0,0 +1,155 @@
+package com.javarest.socks.config;
+
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admits at most {@code limit} open connections at a time. Virtual threads are cheap enough that thousands of
+ * requests can reach the database layer at once; excess requests wait on a fair semaphore for at most
+ * {@code timeout} and are then rejected, instead of piling up on the connection pool.
+ * <p>
+ * A thread that already holds a connection does not wait for a second admission permit, which could deadlock
+ * on the limit. Its nested connection takes one of {@code reserve} separate permits instead. With
+ * {@code limit + reserve} not above the pool size, nested connections never wait on an exhausted pool while
+ * their own outer connection is held: they either get a reserved pooled connection or are rejected after
+ * {@code timeout}.
+ */
+class AdmissionControlledDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+
+    private final Semaphore nestedPermits;
+
+    private final int limit;
+
+    private final Duration timeout;
+
+    private final ThreadLocal<int[]> openConnections = ThreadLocal.withInitial(() -> new int[1]);
+
+    AdmissionControlledDataSource(DataSource target, int limit, int reserve, Duration timeout) {
+        super(target);
+        this.permits = new Semaphore(limit, true);
+        this.nestedPermits = new Semaphore(reserve, true);
+        this.limit = limit;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return admit(() -> obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return admit(() -> obtainTargetDataSource().getConnection(username, password));
+    }
+
+    int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    int getAvailableNestedPermits() {
+        return nestedPermits.availablePermits();
+    }
+
+    private Connection admit(ConnectionSupplier supplier) throws SQLException {
+        int[] counter = openConnections.get();
+        boolean nested = counter[0] > 0;
+        Semaphore permit = nested ? nestedPermits : permits;
+        if (!tryAcquire(permit)) {
+            throw new SQLTransientConnectionException(nested
+                    ? "No reserved database connection for a nested connection within " + timeout
+                    : "Database admission limit of " + limit + " connections reached, no permit within " + timeout);
+        }
+        try {
+            Connection connection = supplier.get();
+            counter[0]++;
+            return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                    new Class<?>[]{ConnectionProxy.class}, new ReleasingHandler(connection, counter, permit));
+        } catch (SQLException | RuntimeException e) {
+            permit.release();
+            throw e;
+        }
+    }
+
+    private boolean tryAcquire(Semaphore permit) throws SQLException {
+        try {
+            return permit.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database admission permit", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+
+    /**
+     * Releases the permit of the connection when it is closed, once.
+     */
+    private final class ReleasingHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        private final int[] counter;
+
+        private final Semaphore permit;
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private ReleasingHandler(Connection target, int[] counter, Semaphore permit) {
+            this.target = target;
+            this.counter = counter;
+            this.permit = permit;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getTargetConnection":
+                    return target;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "close":
+                    if (closed.compareAndSet(false, true)) {
+                        try {
+                            target.close();
+                        } finally {
+                            counter[0]--;
+                            permit.release();
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    if (closed.get()) {
+                        return true;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
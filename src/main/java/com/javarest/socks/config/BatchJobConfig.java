@@ -0,0 +1,28 @@
+package com.javarest.socks.config;
+
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class BatchJobConfig {
+
+    /**
+     * In virtual-thread mode the job threads are virtual; the pool still bounds the number of parallel
+     * jobs and the queue, so uploads are rejected the same way in both modes.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor batchImportExecutor(SocksBatchProperties properties, Environment environment) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getJobThreads());
+        executor.setMaxPoolSize(properties.getJobThreads());
+        executor.setQueueCapacity(properties.getJobQueueCapacity());
+        executor.setThreadNamePrefix("batch-import-");
+        if (Threading.VIRTUAL.isActive(environment)) {
+            executor.setThreadFactory(Thread.ofVirtual().name("batch-import-", 0).factory());
+        }
+        return executor;
+    }
+}
@@ -0,0 +1,42 @@
+package com.javarest.socks.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "socks.audit")
+@Getter
+@Setter
+public class SocksAuditProperties {
+
+    /**
+     * Write an audit event for every stock mutation.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Capacity of the in-memory event buffer, rounded up to a power of two. Events are dropped
+     * and counted instead of blocking requests when it is full.
+     */
+    private int bufferSize = 8192;
+
+    /**
+     * Maximum number of events written to the file at once.
+     */
+    private int batchSize = 512;
+
+    /**
+     * How long the writer waits for new events once the buffer is empty.
+     */
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    /**
+     * Audit log file, one JSON event per line.
+     */
+    private Path file = Path.of("logs", "socks-audit.log");
+}
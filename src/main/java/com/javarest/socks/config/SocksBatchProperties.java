@@ -0,0 +1,41 @@
+package com.javarest.socks.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "socks.batch")
+@Getter
+@Setter
+public class SocksBatchProperties {
+
+    /**
+     * Number of upsert statements sent to the database in one JDBC batch.
+     */
+    private int chunkSize = 1000;
+
+    /**
+     * Number of rows an asynchronous batch job or a streamed import commits per transaction.
+     * A failed job resumes after the last committed checkpoint.
+     */
+    private int checkpointRows = 10000;
+
+    /**
+     * Number of asynchronous batch jobs processed in parallel.
+     */
+    private int jobThreads = 2;
+
+    /**
+     * Number of asynchronous batch jobs waiting for a free thread before new uploads are rejected.
+     */
+    private int jobQueueCapacity = 20;
+
+    /**
+     * How long finished batch jobs are kept available for status polling.
+     */
+    private Duration jobRetention = Duration.ofHours(24);
+}
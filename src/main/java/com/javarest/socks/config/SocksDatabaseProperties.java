@@ -0,0 +1,32 @@
+package com.javarest.socks.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "socks.db")
+@Getter
+@Setter
+public class SocksDatabaseProperties {
+
+    /**
+     * Number of connections that may be open at the same time in virtual-thread mode.
+     * Defaults to the maximum size of the Hikari pool minus {@link #admissionReserve}.
+     */
+    private Integer admissionLimit;
+
+    /**
+     * Number of pooled connections kept for threads that open a second connection while holding one,
+     * such as a REQUIRES_NEW transaction. Defaults to a quarter of the Hikari pool, at least one.
+     */
+    private Integer admissionReserve;
+
+    /**
+     * How long a request waits for a database admission permit before it is rejected with 503.
+     */
+    private Duration admissionTimeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,30 @@
+package com.javarest.socks.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "socks.ledger")
+@Getter
+@Setter
+public class SocksLedgerProperties {
+
+    /**
+     * Record single incomes and outcomes in the stock_movements ledger instead of updating the socks row.
+     */
+    private boolean enabled = false;
+
+    /**
+     * How often ledger movements are folded into the socks balances.
+     */
+    private Duration compactionInterval = Duration.ofSeconds(1);
+
+    /**
+     * Number of movements folded into the balances per transaction.
+     */
+    private int compactionBatchSize = 10000;
+}
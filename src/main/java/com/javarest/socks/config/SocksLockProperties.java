@@ -0,0 +1,23 @@
+package com.javarest.socks.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "socks.locks")
+@Getter
+@Setter
+public class SocksLockProperties {
+
+    /**
+     * Serialize mutations of the same consignment inside the application before they take a database connection.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Number of locks the consignments are hashed to. Mutations of consignments sharing a stripe wait for each other.
+     */
+    private int stripes = 64;
+}
@@ -0,0 +1,41 @@
+package com.javarest.socks.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "socks.query")
+@Getter
+@Setter
+public class SocksQueryProperties {
+
+    /**
+     * Serve socks count requests from the in-memory cotton percentage index instead of SQL.
+     * Only valid while this application is the single writer of the socks table.
+     */
+    private boolean countIndexEnabled = true;
+
+    /**
+     * Page size of the socks listing when a cursor is given without a limit.
+     */
+    private int defaultPageSize = 100;
+
+    /**
+     * Largest page size a client may request from the socks listing.
+     */
+    private int maxPageSize = 1000;
+
+    /**
+     * Number of rows the JDBC driver fetches per round trip when the socks listing is streamed.
+     */
+    private int streamFetchSize = 500;
+
+    /**
+     * Longest time a streamed socks listing may hold its connection, used as the statement timeout as well.
+     */
+    private Duration streamTimeout = Duration.ofSeconds(60);
+}
@@ -0,0 +1,30 @@
+package com.javarest.socks.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "socks.retry")
+@Getter
+@Setter
+public class SocksRetryProperties {
+
+    /**
+     * Number of times a mutation is run before an optimistic lock conflict is returned to the client.
+     */
+    private int maxAttempts = 5;
+
+    /**
+     * Upper bound of the random delay before the first retry, doubled with every further retry.
+     */
+    private Duration initialBackoff = Duration.ofMillis(10);
+
+    /**
+     * Largest upper bound of the random delay before a retry.
+     */
+    private Duration maxBackoff = Duration.ofMillis(200);
+}
@@ -0,0 +1,36 @@
+package com.javarest.socks.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "socks.write-behind")
+@Getter
+@Setter
+public class SocksWriteBehindProperties {
+
+    /**
+     * Buffer single socks incomes in memory and write them to the database in batches.
+     */
+    private boolean enabled = false;
+
+    /**
+     * How often buffered incomes are written to the database.
+     */
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    /**
+     * Number of buffered income events that triggers a write before the interval elapses.
+     */
+    private int flushThreshold = 10000;
+
+    /**
+     * Directory of the write-ahead log segments of buffered incomes, replayed at startup.
+     */
+    private Path walDirectory = Path.of("data", "write-behind");
+}
@@ -0,0 +1,54 @@
+package com.javarest.socks.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Opt-in virtual-thread mode, switched on with {@code spring.threads.virtual.enabled=true} on Java 21.
+ * Spring Boot then runs Tomcat request handling and async MVC processing on virtual threads,
+ * {@link BatchJobConfig} does the same for batch jobs, and this configuration puts the
+ * {@link AdmissionControlledDataSource} limit in front of the connection pool.
+ */
+@Configuration
+@Slf4j
+public class VirtualThreadConfig {
+
+    @Bean
+    static BeanPostProcessor databaseAdmissionPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof AdmissionControlledDataSource
+                        || !Threading.VIRTUAL.isActive(environment)) {
+                    return bean;
+                }
+                SocksDatabaseProperties properties = Binder.get(environment)
+                        .bind("socks.db", SocksDatabaseProperties.class)
+                        .orElseGet(SocksDatabaseProperties::new);
+                int poolSize = dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+                int reserve = properties.getAdmissionReserve() != null
+                        ? properties.getAdmissionReserve()
+                        : Math.max(1, poolSize / 4);
+                int limit = properties.getAdmissionLimit() != null
+                        ? properties.getAdmissionLimit()
+                        : Math.max(1, poolSize - reserve);
+                if (limit + reserve > poolSize) {
+                    log.warn("Database admission limit {} plus reserve {} exceeds the pool size {} of {}, " +
+                            "nested connections may wait on the pool.", limit, reserve, poolSize, beanName);
+                }
+                log.info("Virtual-thread mode: database access of {} is limited to {} connections plus {} reserved " +
+                        "for nested connections, waiting at most {}.", beanName, limit, reserve,
+                        properties.getAdmissionTimeout());
+                return new AdmissionControlledDataSource(dataSource, limit, reserve, properties.getAdmissionTimeout());
+            }
+        };
+    }
+}
@@ -0,0 +1,111 @@
+package com.javarest.socks.controller;
+
+import com.javarest.socks.dto.BatchImportResult;
+import com.javarest.socks.dto.BatchJobStatus;
+import com.javarest.socks.service.BatchImportJobService;
+import com.javarest.socks.service.SocksStreamImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.EmptyFileException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.InputStream;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/socks/batch")
+@AllArgsConstructor
+@Slf4j
+public class BatchImportController {
+
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final BatchImportJobService jobService;
+
+    private final SocksStreamImportService streamImportService;
+
+    @Operation(summary = "Start an asynchronous import of a socks batch from an uploaded Excel file")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Batch job has been accepted and queued."),
+            @ApiResponse(responseCode = "400", description = "Provided file is empty."),
+            @ApiResponse(responseCode = "503", description = "Too many batch jobs are in progress."),
+            @ApiResponse(responseCode = "500", description = "Unexpected internal error while storing the file.")
+    })
+    @PostMapping("/jobs")
+    public ResponseEntity<BatchJobStatus> submitBatchJob(
+            @Parameter(description = "MultipartFile containing batch details in Excel format", required = true)
+            @RequestParam("file") MultipartFile file) {
+        if (file.isEmpty()) {
+            log.error("Error occurred during POST /batch/jobs request - File {} is empty.", file);
+            throw new EmptyFileException();
+        }
+
+        BatchJobStatus status = jobService.submit(file);
+        log.info("POST /batch/jobs request received, batch job {} has been queued.", status.getJobId());
+        return ResponseEntity.accepted().body(status);
+    }
+
+    @Operation(summary = "Import a socks batch streamed as CSV in the request body",
+            description = "Rows are color,cottonPercentage,quantity; an optional header line naming these columns is skipped.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Socks batch has been successfully registered."),
+            @ApiResponse(responseCode = "415", description = "Request body is not valid CSV."),
+            @ApiResponse(responseCode = "422", description = "Request body became invalid after some rows had been registered."),
+            @ApiResponse(responseCode = "500", description = "Unexpected internal error while reading the body.")
+    })
+    @PostMapping(value = "/stream", consumes = TEXT_CSV_VALUE)
+    public ResponseEntity<BatchImportResult> importCsv(InputStream body) {
+        BatchImportResult result = streamImportService.importCsv(body);
+        log.info("POST /batch/stream request received, {} CSV rows have been imported.", result.getRows());
+        return ResponseEntity.ok(result);
+    }
+
+    @Operation(summary = "Import a socks batch streamed as newline-delimited JSON in the request body")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Socks batch has been successfully registered."),
+            @ApiResponse(responseCode = "415", description = "Request body is not valid NDJSON."),
+            @ApiResponse(responseCode = "422", description = "Request body became invalid after some rows had been registered."),
+            @ApiResponse(responseCode = "500", description = "Unexpected internal error while reading the body.")
+    })
+    @PostMapping(value = "/stream", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BatchImportResult> importNdjson(InputStream body) {
+        BatchImportResult result = streamImportService.importNdjson(body);
+        log.info("POST /batch/stream request received, {} NDJSON rows have been imported.", result.getRows());
+        return ResponseEntity.ok(result);
+    }
+
+    @Operation(summary = "Retrieve progress of an asynchronous batch import job")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved batch job status."),
+            @ApiResponse(responseCode = "404", description = "Batch job with the specified ID was not found.")
+    })
+    @GetMapping("/{jobId}")
+    public ResponseEntity<BatchJobStatus> getBatchJobStatus(
+            @Parameter(description = "ID of the batch job", required = true)
+            @PathVariable UUID jobId) {
+        return ResponseEntity.ok(jobService.getStatus(jobId));
+    }
+
+    @Operation(summary = "Resume a failed batch import job from its last committed checkpoint")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Batch job has been queued again."),
+            @ApiResponse(responseCode = "404", description = "Batch job with the specified ID was not found."),
+            @ApiResponse(responseCode = "409", description = "Batch job has not failed and can not be resumed."),
+            @ApiResponse(responseCode = "503", description = "Too many batch jobs are in progress.")
+    })
+    @PostMapping("/{jobId}/resume")
+    public ResponseEntity<BatchJobStatus> resumeBatchJob(
+            @Parameter(description = "ID of the failed batch job", required = true)
+            @PathVariable UUID jobId) {
+        BatchJobStatus status = jobService.resume(jobId);
+        log.info("POST /batch/{}/resume request received, batch job has been queued again.", jobId);
+        return ResponseEntity.accepted().body(status);
+    }
+}
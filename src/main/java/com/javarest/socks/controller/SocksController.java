@@ -1,10 +1,18 @@
 package com.javarest.socks.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.javarest.socks.dto.CottonPercentageFilter;
+import com.javarest.socks.dto.SocksMovementsRequest;
+import com.javarest.socks.dto.SocksMovementsResult;
+import com.javarest.socks.dto.SocksPage;
 import com.javarest.socks.dto.SocksRequest;
+import com.javarest.socks.dto.SocksResponse;
 import com.javarest.socks.exception.constant.ErrorMessage;
 import com.javarest.socks.exception.exceptions.FileProcessingException;
-import com.javarest.socks.model.Socks;
+import com.javarest.socks.exception.exceptions.InvalidSocksParametersException;
+import com.javarest.socks.repository.SocksQuery;
+import com.javarest.socks.service.SocksIncomeBatch;
 import com.javarest.socks.service.SocksService;
 import com.javarest.socks.util.ExcelUtils;
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,13 +20,20 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.EmptyFileException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 
 @RestController
@@ -27,8 +42,14 @@ import java.util.List;
 @Slf4j
 public class SocksController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final SocksService service;
 
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
     @Operation(summary = "Register the income of a new consignment of socks")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Socks income successfully registered."),
@@ -38,7 +59,6 @@ public class SocksController {
     @PostMapping("/income")
     public ResponseEntity<String> registerSocksIncome(@RequestBody @Valid SocksRequest income) {
         service.registerSocksIncome(income);
-        log.info("POST /income received, socks income successfully registered: {}", income);
         return ResponseEntity.ok("Socks income successfully registered.");
     }
 
@@ -52,14 +72,30 @@ public class SocksController {
     @PostMapping("/outcome")
     public ResponseEntity<String> registerSocksOutcome(@RequestBody @Valid SocksRequest outcome) {
         service.registerSocksOutcome(outcome);
-        log.info("POST /outcome request received, socks outcome successfully registered: {}", outcome);
         return ResponseEntity.ok("Socks outcome successfully registered.");
     }
 
+    @Operation(summary = "Register a bulk of socks incomes and outcomes in one transaction",
+            description = "Either all movements are registered or none of them is. Movements of the same consignment " +
+                    "are applied in request order.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "All movements have been registered."),
+            @ApiResponse(responseCode = "400", description = "Invalid request format or validation error."),
+            @ApiResponse(responseCode = "409", description = "Some movements were rejected, so none has been registered."),
+            @ApiResponse(responseCode = "500", description = "Unexpected error during registration.")
+    })
+    @PostMapping("/movements/bulk")
+    public ResponseEntity<SocksMovementsResult> registerSocksMovements(@RequestBody @Valid SocksMovementsRequest request) {
+        SocksMovementsResult result = service.registerSocksMovements(request.getMovements());
+        return ResponseEntity.ok(result);
+    }
+
     @Operation(summary = "Register a batch of socks from an uploaded Excel file")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Socks batch has been successfully registered."),
-            @ApiResponse(responseCode = "400", description = "Provided file is empty or incorrectly formatted."),
+            @ApiResponse(responseCode = "400", description = "Provided file is empty or a row holds invalid socks " +
+                    "parameters; nothing has been registered then."),
+            @ApiResponse(responseCode = "415", description = "Provided file is not a valid Excel workbook."),
             @ApiResponse(responseCode = "500", description = "Unexpected internal error while processing the file.")
     })
     @PostMapping("/batch")
@@ -71,14 +107,36 @@ public class SocksController {
             throw new EmptyFileException();
         }
 
+        Path batchFile = null;
         try {
-            List<SocksRequest> socksBatch = ExcelUtils.parseExcelFile(file.getResource().getFile());
-            socksBatch.forEach(service::registerSocksIncome);
-            log.info("POST /batch request received, socks from file {} has been added.", file);
+            batchFile = Files.createTempFile("socks-batch-", ".xlsx");
+            file.transferTo(batchFile);
+            SocksIncomeBatch batch = new SocksIncomeBatch();
+            // Every row is validated before any is registered, so an invalid row rejects the whole upload.
+            ExcelUtils.parseExcelFile(batchFile.toFile(), row -> {
+                if (!validator.validate(row).isEmpty()) {
+                    throw new InvalidSocksParametersException(ErrorMessage.INVALID_SOCKS_PARAMETERS.getMsg());
+                }
+                batch.add(row);
+            });
+            service.registerSocksIncomeBatch(batch);
             return ResponseEntity.ok("Socks batch has been successfully registered");
-        } catch (Exception e) {
+        } catch (IOException e) {
             log.error("Error occurred while processing the file {} with POST /batch request.", file);
             throw new FileProcessingException(ErrorMessage.FILE_PROCESSING.getMsg());
+        } finally {
+            deleteBatchFile(batchFile);
+        }
+    }
+
+    private void deleteBatchFile(Path batchFile) {
+        if (batchFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(batchFile);
+        } catch (IOException e) {
+            log.warn("Temporary batch file {} could not be deleted.", batchFile);
         }
     }
 
@@ -97,7 +155,6 @@ public class SocksController {
                     "including color, cotton percentage, and quantity", required = true)
             @RequestBody @Valid SocksRequest dto) {
         service.updateSocksById(id, dto);
-        log.info("Socks information has been successfully updated through request - PUT /socks/{}: {}", id, dto);
         return ResponseEntity.ok("Socks information has been successfully updated.");
     }
 
@@ -114,10 +171,7 @@ public class SocksController {
             @RequestParam(required = false) String color,
             @Parameter(description = "Filter by cotton percentage of socks", example = "50")
             @RequestParam(required = false, name = "cottonPercentage") CottonPercentageFilter filter) {
-        log.info("GET api/socks request received with parameters - color: {}, cottonPercentage: {}",
-                color, filter);
         int socksCount = service.getSocksCount(color, filter);
-        log.info("GET api/socks response: Retrieved {} socks.", socksCount);
         return ResponseEntity.ok(socksCount);
     }
 
@@ -125,11 +179,49 @@ public class SocksController {
             description = "This method allows filtering by color and/or a range of cotton percentages. Sorting by specific fields is also supported.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved the list of socks."),
-            @ApiResponse(responseCode = "400", description = "Invalid filter or sorting parameter provided."),
+            @ApiResponse(responseCode = "400", description = "Invalid filter, sorting or paging parameter provided."),
             @ApiResponse(responseCode = "500", description = "Internal server error.")
     })
     @GetMapping("/all")
-    public ResponseEntity<List<Socks>> getSocksSorted(
+    public ResponseEntity<List<SocksResponse>> getSocksSorted(
+            @Parameter(description = "Filter by color of socks. If not specified, all colors are included.", example = "red")
+            @RequestParam(required = false) String color,
+            @Parameter(description = "Filter parameters for cotton percentage (e.g., range or operator)", example = "<")
+            @RequestParam(required = false, name = "cottonPercentage") CottonPercentageFilter filter,
+            @Parameter(description = "Field by which to sort results (e.g., 'color', 'quantity').", example = "quantity")
+            @RequestParam(required = false, name = "sortBy") String sortField,
+            @Parameter(description = "Direction to sort: 'asc' for ascending or 'desc' for descending.", example = "asc")
+            @RequestParam(required = false) String sortDirection,
+            @Parameter(description = "Page size. When set, results are paginated and the cursor of the next page " +
+                    "is returned in the " + NEXT_CURSOR_HEADER + " header.", example = "50")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Cursor of the page to retrieve, taken from the " + NEXT_CURSOR_HEADER +
+                    " header of the previous page.")
+            @RequestParam(required = false) String after
+    ) {
+        if (limit == null && after == null) {
+            List<SocksResponse> socks = service.getAllSocksSorted(color, filter, sortField, sortDirection);
+            return ResponseEntity.ok(socks);
+        }
+
+        SocksPage page = service.getSocksPage(color, filter, sortField, sortDirection, after, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
+    @Operation(summary = "Stream the full list of socks, optionally sorted and filtered",
+            description = "Selected with stream=true. The JSON array is written row by row while the rows are read " +
+                    "from the database, so memory use does not depend on the inventory size.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Socks list is being streamed."),
+            @ApiResponse(responseCode = "400", description = "Invalid filter or sorting parameter provided."),
+            @ApiResponse(responseCode = "500", description = "Internal server error.")
+    })
+    @GetMapping(value = "/all", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamSocksSorted(
             @Parameter(description = "Filter by color of socks. If not specified, all colors are included.", example = "red")
             @RequestParam(required = false) String color,
             @Parameter(description = "Filter parameters for cotton percentage (e.g., range or operator)", example = "<")
@@ -139,10 +231,24 @@ public class SocksController {
             @Parameter(description = "Direction to sort: 'asc' for ascending or 'desc' for descending.", example = "asc")
             @RequestParam(required = false) String sortDirection
     ) {
-        log.info("GET /all request received with parameters - color: {}, cottonPercentage: {}, sortBy: {}, sortDirection: {}",
-                color, filter, sortField, sortDirection);
-        List<Socks> socks = service.getAllSocksSorted(color, filter, sortField, sortDirection);
-        log.info("GET /all response: Retrieved {} socks.", socks.size());
-        return ResponseEntity.ok(socks);
+        SocksQuery query = service.prepareSocksStream(color, filter, sortField, sortDirection);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.writeStartArray();
+                service.streamAllSocksSorted(query, socks -> writeSocks(generator, socks));
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    private void writeSocks(JsonGenerator generator, SocksResponse socks) {
+        try {
+            generator.writeObject(socks);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
@@ -1,11 +1,17 @@
 package com.javarest.socks.exception;
 
+import com.javarest.socks.dto.SocksMovementsResult;
 import com.javarest.socks.exception.exceptions.*;
 import com.javarest.socks.exception.response.ErrorResponse;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.validation.ValidationException;
+import lombok.AllArgsConstructor;
 import org.apache.poi.EmptyFileException;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -14,10 +20,14 @@ import org.springframework.web.method.annotation.MethodArgumentTypeMismatchExcep
 import static com.javarest.socks.exception.constant.ErrorMessage.*;
 
 @RestControllerAdvice
+@AllArgsConstructor
 public class GlobalExceptionHandler {
 
+    private final MeterRegistry meterRegistry;
+
     @ExceptionHandler(SocksNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleSocksNotFoundException() {
+        countError(SocksNotFoundException.class);
         ErrorResponse response = new ErrorResponse(SOCKS_NOT_FOUND.getMsg());
         return ResponseEntity
                 .status(HttpStatus.NOT_FOUND)
@@ -26,12 +36,37 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(InsufficientStockException.class)
     public ResponseEntity<ErrorResponse> handleInsufficientStockException() {
+        countError(InsufficientStockException.class);
         ErrorResponse response = new ErrorResponse(INSUFFICIENT_STOCK.getMsg());
         return ResponseEntity
                 .status(HttpStatus.BAD_REQUEST)
                 .body(response);
     }
 
+    @ExceptionHandler(QuantityOverflowException.class)
+    public ResponseEntity<ErrorResponse> handleQuantityOverflowException() {
+        ErrorResponse response = new ErrorResponse(QUANTITY_OVERFLOW.getMsg());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(response);
+    }
+
+    @ExceptionHandler(InvalidSocksParametersException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidSocksParametersException() {
+        countError(InvalidSocksParametersException.class);
+        ErrorResponse response = new ErrorResponse(INVALID_SOCKS_PARAMETERS.getMsg());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(response);
+    }
+
+    @ExceptionHandler(SocksMovementsRejectedException.class)
+    public ResponseEntity<SocksMovementsResult> handleSocksMovementsRejectedException(SocksMovementsRejectedException e) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(e.getResult());
+    }
+
     @ExceptionHandler(InvalidFileFormatException.class)
     public ResponseEntity<ErrorResponse> handleInvalidFileFormatException() {
         ErrorResponse response = new ErrorResponse(INVALID_FILE_FORMAT.getMsg());
@@ -40,6 +75,15 @@ public class GlobalExceptionHandler {
                 .body(response);
     }
 
+    @ExceptionHandler(PartialImportException.class)
+    public ResponseEntity<ErrorResponse> handlePartialImportException(PartialImportException e) {
+        countError(PartialImportException.class);
+        ErrorResponse response = new ErrorResponse(e.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(response);
+    }
+
     @ExceptionHandler(FileProcessingException.class)
     public ResponseEntity<ErrorResponse> handleFileProcessingException() {
         ErrorResponse response = new ErrorResponse(FILE_PROCESSING.getMsg());
@@ -80,6 +124,54 @@ public class GlobalExceptionHandler {
                 .body(response);
     }
 
+    @ExceptionHandler(InvalidPageRequestException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidPageRequestException() {
+        ErrorResponse response = new ErrorResponse(INVALID_PAGE_REQUEST.getMsg());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(response);
+    }
+
+    @ExceptionHandler(BatchJobNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleBatchJobNotFoundException() {
+        ErrorResponse response = new ErrorResponse(BATCH_JOB_NOT_FOUND.getMsg());
+        return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body(response);
+    }
+
+    @ExceptionHandler(BatchJobNotResumableException.class)
+    public ResponseEntity<ErrorResponse> handleBatchJobNotResumableException() {
+        ErrorResponse response = new ErrorResponse(BATCH_JOB_NOT_RESUMABLE.getMsg());
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(response);
+    }
+
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<ErrorResponse> handleTaskRejectedException() {
+        ErrorResponse response = new ErrorResponse(BATCH_JOBS_BUSY.getMsg());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(response);
+    }
+
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<ErrorResponse> handleCannotCreateTransactionException() {
+        ErrorResponse response = new ErrorResponse(DATABASE_BUSY.getMsg());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(response);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailureException() {
+        ErrorResponse response = new ErrorResponse(CONCURRENT_MODIFICATION.getMsg());
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(response);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGeneralException(Exception e) {
         ErrorResponse response = new ErrorResponse(GENERIC_ERROR.getMsg());
@@ -87,4 +179,8 @@ public class GlobalExceptionHandler {
                 .status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(response);
     }
+
+    private void countError(Class<? extends Exception> exception) {
+        meterRegistry.counter("socks.errors", "exception", exception.getSimpleName()).increment();
+    }
 }
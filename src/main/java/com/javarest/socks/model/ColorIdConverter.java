@@ -0,0 +1,31 @@
+package com.javarest.socks.model;
+
+import com.javarest.socks.repository.ColorDictionary;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Stores color names as ids of the {@code colors} dictionary. Created by Hibernate through the Spring bean
+ * container; the dictionary is resolved lazily because Hibernate instantiates converters while the
+ * entity manager factory itself is being built.
+ */
+@Converter
+public class ColorIdConverter implements AttributeConverter<String, Integer> {
+
+    private final ObjectProvider<ColorDictionary> colorDictionary;
+
+    public ColorIdConverter(ObjectProvider<ColorDictionary> colorDictionary) {
+        this.colorDictionary = colorDictionary;
+    }
+
+    @Override
+    public Integer convertToDatabaseColumn(String color) {
+        return color == null ? null : colorDictionary.getObject().intern(color);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Integer colorId) {
+        return colorId == null ? null : colorDictionary.getObject().nameOf(colorId);
+    }
+}
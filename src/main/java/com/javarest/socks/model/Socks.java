@@ -1,10 +1,11 @@
 package com.javarest.socks.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
-@Table(name = "socks")
+@Table(name = "socks", uniqueConstraints = @UniqueConstraint(columnNames = {"color_id", "cotton_percentage"}))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -15,10 +16,26 @@ public class Socks {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Column(name = "color_id", nullable = false)
+    @Convert(converter = ColorIdConverter.class)
     private String color;
 
     @Column(name = "cotton_percentage")
     private int cottonPercentage;
 
     private int quantity;
+
+    /**
+     * Optimistic lock of the consignment, also incremented by the upsert and guarded decrease statements.
+     */
+    @Version
+    private long version;
+
+    /**
+     * Read-only view of the color dictionary entry, only used to sort by color name in queries.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "color_id", insertable = false, updatable = false)
+    @JsonIgnore
+    private Color colorEntry;
 }
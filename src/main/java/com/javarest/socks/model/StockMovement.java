@@ -0,0 +1,44 @@
+package com.javarest.socks.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Entry of the append-only stock ledger: a signed quantity change of one consignment.
+ * Entries are never updated except for the {@code compacted} flag, which is set once
+ * the change has been folded into the {@link Socks} balance row.
+ */
+@Entity
+@Table(name = "stock_movements")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockMovement {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "color_id", nullable = false)
+    @Convert(converter = ColorIdConverter.class)
+    private String color;
+
+    @Column(name = "cotton_percentage", nullable = false)
+    private int cottonPercentage;
+
+    /**
+     * Positive for incomes, negative for outcomes.
+     */
+    @Column(nullable = false)
+    private int quantity;
+
+    @Column(name = "created_at", nullable = false)
+    @Builder.Default
+    private Instant createdAt = Instant.now();
+
+    @Column(nullable = false)
+    private boolean compacted;
+}
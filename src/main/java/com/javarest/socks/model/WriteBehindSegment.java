@@ -0,0 +1,27 @@
+package com.javarest.socks.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Write-ahead log segment of the write-behind buffer whose incomes have been committed.
+ * The row is inserted in the same transaction as the incomes, and removed once the segment file is deleted.
+ */
+@Entity
+@Table(name = "write_behind_segments")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WriteBehindSegment {
+    @Id
+    @Column(length = 255)
+    private String name;
+
+    @Column(name = "flushed_at", nullable = false)
+    @Builder.Default
+    private Instant flushedAt = Instant.now();
+}
@@ -0,0 +1,242 @@
+package com.javarest.socks.repository;
+
+import com.javarest.socks.sql.ColorNames;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Interning cache of the {@code colors} dictionary: maps canonical color names to the small integer ids
+ * stored in {@code socks.color_id} and back. Names are canonicalized by {@link ColorNames}, so differently
+ * cased spellings share one id. Entries never change once created, so cached ids are never invalidated.
+ * <p>
+ * Lookups and inserts run on the connection of the calling transaction, obtained through
+ * {@link DataSourceUtils}, so resolving a color never takes a second pooled connection. A color inserted
+ * by a transaction belongs to that transaction: it is only cached once the transaction commits, and a
+ * rollback removes it together with the socks that referenced it. Colors read from the table are committed
+ * and are cached right away. Outside a transaction a connection
+ * is borrowed for the single statement and the insert commits on its own.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ColorDictionary {
+
+    private static final String SELECT_ID = "SELECT id FROM colors WHERE name = ?";
+
+    private static final String SELECT_NAME = "SELECT name FROM colors WHERE id = ?";
+
+    private static final String INSERT = "INSERT INTO colors (name) VALUES (?)";
+
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private final DataSource dataSource;
+
+    private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Integer, String> names = new ConcurrentHashMap<>();
+
+    /**
+     * Colors inserted by transactions that have not committed yet, keyed by the transaction's connection holder.
+     */
+    private final ConcurrentMap<Object, Map<String, Integer>> uncommitted = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the id of the color, adding the color to the dictionary if it is not there yet.
+     *
+     * @param color The color name in any case.
+     * @return The id of the canonical color name.
+     */
+    public int intern(String color) {
+        String name = ColorNames.canonical(color);
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+
+        Integer inserted = uncommitted().get(name);
+        if (inserted != null) {
+            return inserted;
+        }
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            OptionalInt existing = selectId(connection, name);
+            if (existing.isPresent()) {
+                return cache(existing.getAsInt(), name);
+            }
+            return insertOrSelect(connection, name);
+        } catch (SQLException e) {
+            throw new DataAccessResourceFailureException("Color " + name + " could not be added to the dictionary", e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    /**
+     * Returns the id of the color without adding it, so that lookups of unknown colors leave no trace.
+     *
+     * @param color The color name in any case.
+     * @return The id of the canonical color name, or empty if no socks of this color were ever stored.
+     */
+    public OptionalInt find(String color) {
+        String name = ColorNames.canonical(color);
+        Integer id = ids.get(name);
+        if (id != null) {
+            return OptionalInt.of(id);
+        }
+
+        Integer inserted = uncommitted().get(name);
+        if (inserted != null) {
+            return OptionalInt.of(inserted);
+        }
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            OptionalInt existing = selectId(connection, name);
+            existing.ifPresent(found -> cache(found, name));
+            return existing;
+        } catch (SQLException e) {
+            throw new DataAccessResourceFailureException("Color " + name + " could not be read from the dictionary", e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    public boolean contains(String color) {
+        return find(color).isPresent();
+    }
+
+    public String nameOf(int id) {
+        String name = names.get(id);
+        if (name == null) {
+            name = uncommitted().entrySet().stream()
+                    .filter(entry -> entry.getValue() == id)
+                    .map(Map.Entry::getKey)
+                    .findFirst()
+                    .orElse(null);
+        }
+        if (name != null) {
+            return name;
+        }
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_NAME)) {
+            statement.setInt(1, id);
+            try (ResultSet result = statement.executeQuery()) {
+                if (!result.next()) {
+                    throw new IllegalStateException("Color with ID " + id + " is not in the dictionary");
+                }
+                cache(id, result.getString(1));
+                return result.getString(1);
+            }
+        } catch (SQLException e) {
+            throw new DataAccessResourceFailureException("Color " + id + " could not be read from the dictionary", e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private static OptionalInt selectId(Connection connection, String name) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_ID)) {
+            statement.setString(1, name);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() ? OptionalInt.of(result.getInt(1)) : OptionalInt.empty();
+            }
+        }
+    }
+
+    /**
+     * Inserts the color, or reads the id another transaction committed for it in the meantime. Inside a
+     * transaction the insert runs under a savepoint, so a unique violation does not abort the caller.
+     */
+    private int insertOrSelect(Connection connection, String name) throws SQLException {
+        Savepoint savepoint = connection.getAutoCommit() ? null : connection.setSavepoint();
+        try {
+            int created = insert(connection, name);
+            if (savepoint != null) {
+                connection.releaseSavepoint(savepoint);
+            }
+            log.info("Color {} has been added to the dictionary with ID {}.", name, created);
+            return cacheWhenCommitted(created, name);
+        } catch (SQLException e) {
+            if (!UNIQUE_VIOLATION.equals(e.getSQLState())) {
+                throw e;
+            }
+            if (savepoint != null) {
+                connection.rollback(savepoint);
+            }
+            // Added concurrently by another request or application instance.
+            return cache(selectId(connection, name).orElseThrow(() -> e), name);
+        }
+    }
+
+    private static int insert(Connection connection, String name) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT, new String[]{"id"})) {
+            statement.setString(1, name);
+            statement.executeUpdate();
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                if (!keys.next()) {
+                    throw new SQLException("No ID has been generated for color " + name);
+                }
+                return keys.getInt(1);
+            }
+        }
+    }
+
+    /**
+     * Caches a color inserted by the current transaction once that transaction commits; until then it is
+     * only known to the transaction itself. Outside a transaction the insert has committed already.
+     */
+    private int cacheWhenCommitted(int id, String name) {
+        Object transaction = TransactionSynchronizationManager.getResource(dataSource);
+        if (transaction == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return cache(id, name);
+        }
+        uncommitted.computeIfAbsent(transaction, key -> {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    uncommitted.getOrDefault(key, Map.of()).forEach((color, colorId) -> cache(colorId, color));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    uncommitted.remove(key);
+                }
+            });
+            return new HashMap<>();
+        }).put(name, id);
+        return id;
+    }
+
+    /**
+     * Colors inserted by the current transaction, empty outside a transaction.
+     */
+    private Map<String, Integer> uncommitted() {
+        Object transaction = TransactionSynchronizationManager.getResource(dataSource);
+        return transaction == null ? Map.of() : uncommitted.getOrDefault(transaction, Map.of());
+    }
+
+    private int cache(int id, String name) {
+        ids.putIfAbsent(name, id);
+        names.putIfAbsent(id, name);
+        return id;
+    }
+}
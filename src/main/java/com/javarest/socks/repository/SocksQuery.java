@@ -0,0 +1,37 @@
+package com.javarest.socks.repository;
+
+import com.javarest.socks.dto.CottonPercentageFilter;
+import lombok.Builder;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+
+import java.util.Set;
+
+/**
+ * Criteria of a socks listing: optional color and cotton percentage filters, the sort key and,
+ * for keyset pages, the position of the last row of the previous page. A null {@code afterId}
+ * requests the first page.
+ */
+@Getter
+@Builder
+public class SocksQuery {
+
+    /**
+     * Entity fields a listing can be sorted by.
+     */
+    public static final Set<String> SORT_FIELDS = Set.of("id", "color", "cottonPercentage", "quantity");
+
+    private final String color;
+
+    private final CottonPercentageFilter filter;
+
+    private final String sortField;
+
+    private final Sort.Direction direction;
+
+    private final Object afterKey;
+
+    private final Long afterId;
+
+    private final int limit;
+}
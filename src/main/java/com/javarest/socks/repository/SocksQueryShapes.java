@@ -0,0 +1,80 @@
+package com.javarest.socks.repository;
+
+import com.javarest.socks.dto.CottonPercentageFilter;
+import com.javarest.socks.dto.SocksResponse;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Compiles socks criteria into a small bounded set of parameterized JPQL shapes. Every cotton percentage
+ * filter is expressed as up to {@link CottonPercentageFilter#MAX_RANGES} inclusive ranges, so a shape depends
+ * only on whether a color is given, the number of ranges, the sort field, the direction and whether a keyset
+ * position is given. A plain range or comparison is one range, so the common shapes stay the same whatever
+ * bounds clients send. Shapes are built once and reused, which keeps Hibernate's query plan cache
+ * and the driver's prepared statement cache warm.
+ */
+final class SocksQueryShapes {
+
+    private static final String COLOR_CONDITION = "s.color = :color AND ";
+
+    /**
+     * Colors are stored as dictionary ids, so sorting by color goes through the dictionary entry to order by name.
+     */
+    private static final String COLOR_NAME = "s.colorEntry.name";
+
+    private static final String COTTON_PERCENTAGE = "s.cottonPercentage";
+
+    private static final String SUM_QUERY = "SELECT COALESCE(SUM(s.quantity), 0) FROM Socks s WHERE ";
+
+    /**
+     * Listing queries select the columns into {@link SocksResponse} directly, so read rows never become managed entities.
+     */
+    private static final String LIST_QUERY = "SELECT new " + SocksResponse.class.getName()
+            + "(s.id, s.color, s.cottonPercentage, s.quantity) FROM Socks s WHERE ";
+
+    private final ConcurrentMap<String, String> sumQueries = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, String> listQueries = new ConcurrentHashMap<>();
+
+    /**
+     * @param rangeCount {@link CottonPercentageFilter#rangeCount()} of the filter to bind.
+     */
+    String sumQuery(boolean byColor, int rangeCount) {
+        return sumQueries.computeIfAbsent(byColor + ":" + rangeCount, key -> SUM_QUERY
+                + (byColor ? COLOR_CONDITION : "") + CottonPercentageFilter.toSql(COTTON_PERCENTAGE, rangeCount));
+    }
+
+    /**
+     * @param rangeCount {@link CottonPercentageFilter#rangeCount()} of the filter to bind.
+     * @param sortField  One of {@link SocksQuery#SORT_FIELDS}; it is part of the query text, so it must be validated.
+     */
+    String listQuery(boolean byColor, int rangeCount, String sortField, Sort.Direction direction,
+                     boolean afterPosition) {
+        if (!SocksQuery.SORT_FIELDS.contains(sortField)) {
+            throw new IllegalArgumentException("Unsupported sort field: " + sortField);
+        }
+        String shape = byColor + ":" + rangeCount + ":" + sortField + ":" + direction + ":" + afterPosition;
+        return listQueries.computeIfAbsent(shape,
+                key -> buildListQuery(byColor, rangeCount, sortField, direction, afterPosition));
+    }
+
+    private static String buildListQuery(boolean byColor, int rangeCount, String sortField, Sort.Direction direction,
+                                         boolean afterPosition) {
+        String key = "color".equals(sortField) ? COLOR_NAME : "s." + sortField;
+        String comparison = direction.isDescending() ? " < " : " > ";
+        StringBuilder query = new StringBuilder(LIST_QUERY);
+        if (byColor) {
+            query.append(COLOR_CONDITION);
+        }
+        query.append(CottonPercentageFilter.toSql(COTTON_PERCENTAGE, rangeCount));
+        if (afterPosition) {
+            query.append(" AND (").append(key).append(comparison).append(":afterKey OR (")
+                    .append(key).append(" = :afterKey AND s.id").append(comparison).append(":afterId))");
+        }
+        query.append(" ORDER BY ").append(key).append(' ').append(direction.name())
+                .append(", s.id ").append(direction.name());
+        return query.toString();
+    }
+}
@@ -1,59 +1,45 @@
 package com.javarest.socks.repository;
 
 import com.javarest.socks.model.Socks;
-import org.springframework.data.domain.Sort;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface SocksRepository extends JpaRepository<Socks, Long> {
+public interface SocksRepository extends JpaRepository<Socks, Long>, SocksRepositoryCustom {
 
     Optional<Socks> findByColorAndCottonPercentage(String color, int cottonPercentage);
 
+    boolean existsByColorAndCottonPercentage(String color, int cottonPercentage);
+
+    /**
+     * Reads the consignment and locks its row until the end of the calling transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Socks s WHERE s.color = :color AND s.cottonPercentage = :cottonPercentage")
+    Optional<Socks> findForUpdate(@Param("color") String color, @Param("cottonPercentage") int cottonPercentage);
+
+    /**
+     * Decreases the quantity of the consignment only if enough socks are in stock.
+     * The check and the update happen in one statement, so concurrent outcomes
+     * can neither oversell nor overwrite each other.
+     *
+     * @return The number of updated rows: 1 on success, 0 if the consignment is missing or has insufficient stock.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Socks s SET s.quantity = s.quantity - :quantity, s.version = s.version + 1 " +
+            "WHERE s.color = :color AND s.cottonPercentage = :cottonPercentage AND s.quantity >= :quantity")
+    int decreaseQuantityIfAvailable(@Param("color") String color, @Param("cottonPercentage") int cottonPercentage,
+                                    @Param("quantity") int quantity);
+
     @Override
     Optional<Socks> findById(Long id);
-
-    List<Socks> findByColor(String color, Sort sort);
-    List<Socks> findByColorAndCottonPercentage(String color, int cottonPercentage, Sort sort);
-    List<Socks> findByCottonPercentageBetween(int minPercentage, int maxPercentage, Sort sort);
-    List<Socks> findByColorAndCottonPercentageBetween(String color, int minPercentage, int maxPercentage, Sort sort);
-    List<Socks> findAll(Sort sort);
-    List<Socks> findByCottonPercentage(int value, Sort sort);
-    List<Socks> findByCottonPercentageGreaterThan(int minPercentage, Sort sort);
-    List<Socks> findByColorAndCottonPercentageLessThan(String color, Integer maxValue, Sort sort);
-    List<Socks> findByColorAndCottonPercentageGreaterThan(String color, Integer minValue, Sort sort);
-
-    List<Socks> findByCottonPercentageLessThan(int maxPercentage, Sort sort);
-
-    @Query("SELECT SUM(s.quantity) FROM Socks s WHERE s.color = :color AND s.cottonPercentage > :cottonPercentage")
-    Optional<Integer> sumQuantityByColorAndCottonPercentageGreaterThan(@Param("color") String color, @Param("cottonPercentage") int cottonPercentage);
-
-    @Query("SELECT SUM(s.quantity) FROM Socks s WHERE s.color = :color AND s.cottonPercentage < :cottonPercentage")
-    Optional<Integer> sumQuantityByColorAndCottonPercentageLessThan(@Param("color") String color, @Param("cottonPercentage") int cottonPercentage);
-
-    @Query("SELECT SUM(s.quantity) FROM Socks s WHERE s.color = :color AND s.cottonPercentage = :cottonPercentage")
-    Optional<Integer> sumQuantityByColorAndCottonPercentage(@Param("color") String color, @Param("cottonPercentage") int cottonPercentage);
-
-    @Query("SELECT SUM(s.quantity) FROM Socks s WHERE s.cottonPercentage BETWEEN :minCottonPercentage AND :maxCottonPercentage")
-    Optional<Integer> sumQuantityByCottonPercentageBetween(@Param("minCottonPercentage") int minCottonPercentage, @Param("maxCottonPercentage") int maxCottonPercentage);
-
-    @Query("SELECT SUM(s.quantity) FROM Socks s WHERE s.color = :color")
-    Optional<Integer> sumQuantityByColor(@Param("color") String color);
-
-    @Query("SELECT SUM(s.quantity) FROM Socks s WHERE s.color = :color AND s.cottonPercentage BETWEEN :minCottonPercentage AND :maxCottonPercentage")
-    Optional<Integer> sumQuantityByColorAndCottonPercentageBetween(@Param("color") String color, @Param("minCottonPercentage") int minCottonPercentage, @Param("maxCottonPercentage") int maxCottonPercentage);
-
-    @Query("SELECT SUM(s.quantity) FROM Socks s WHERE s.cottonPercentage > :cottonPercentage")
-    Optional<Integer> sumQuantityByCottonPercentageGreaterThan(@Param("cottonPercentage") int cottonPercentage);
-
-    @Query("SELECT SUM(s.quantity) FROM Socks s WHERE s.cottonPercentage < :cottonPercentage")
-    Optional<Integer> sumQuantityByCottonPercentageLessThan(@Param("cottonPercentage") int cottonPercentage);
-
-    @Query("SELECT SUM(s.quantity) FROM Socks s WHERE s.cottonPercentage = :cottonPercentage")
-    Optional<Integer> sumQuantityByCottonPercentage(@Param("cottonPercentage") int cottonPercentage);
 }
@@ -0,0 +1,73 @@
+package com.javarest.socks.repository;
+
+import com.javarest.socks.dto.CottonPercentageFilter;
+import com.javarest.socks.dto.SocksRequest;
+import com.javarest.socks.dto.SocksResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface SocksRepositoryCustom {
+
+    /**
+     * Adds the given quantity to the consignment identified by color and cotton percentage,
+     * creating the consignment when it does not exist yet. Executed as a single database-side
+     * upsert, so concurrent incomes for the same key never lose an increment.
+     *
+     * @param color            The color of the socks.
+     * @param cottonPercentage The cotton percentage of the socks.
+     * @param quantity         The quantity to add.
+     * @return The number of affected rows.
+     */
+    int upsertQuantity(String color, int cottonPercentage, int quantity);
+
+    /**
+     * Applies {@link #upsertQuantity(String, int, int)} for every income, sending all statements
+     * to the database as one JDBC batch.
+     *
+     * @param incomes The incomes to register; should not contain the same color and cotton percentage twice.
+     */
+    void upsertQuantities(List<SocksRequest> incomes);
+
+    /**
+     * Sums the quantity of socks matching the color and cotton percentage filters.
+     *
+     * @param color  The color of the socks (optional). Pass null to sum all colors.
+     * @param filter The cotton percentage filter (optional). Pass null to sum all percentages.
+     * @return The total quantity, 0 if nothing matches.
+     */
+    long sumQuantity(String color, CottonPercentageFilter filter);
+
+    /**
+     * Returns all socks matching the filters of the query in its sort order, ignoring paging parameters.
+     *
+     * @param query The filters and the sort key.
+     * @return The matching socks.
+     */
+    List<SocksResponse> findMatching(SocksQuery query);
+
+    /**
+     * Returns one page of socks ordered by the sort key and then by id, starting right after the row
+     * identified by {@link SocksQuery#getAfterKey()} and {@link SocksQuery#getAfterId()}.
+     * The position is expressed as a WHERE condition instead of an OFFSET, so the cost of a page
+     * does not grow with its depth.
+     *
+     * @param query The filters, the sort key and the position of the previous page.
+     * @return At most {@link SocksQuery#getLimit()} socks.
+     */
+    List<SocksResponse> findPage(SocksQuery query);
+
+    /**
+     * Streams all socks matching the filters of the query in its sort order, ignoring paging parameters.
+     * Rows are fetched from the driver {@code fetchSize} at a time and are not attached to the persistence
+     * context, so neither the driver nor Hibernate holds the whole result.
+     * Must be called inside a transaction, and the returned stream must be closed.
+     *
+     * @param query     The filters and the sort key.
+     * @param fetchSize The number of rows the JDBC driver fetches per round trip.
+     * @param timeout   The statement timeout passed to the JDBC driver.
+     * @return A lazily populated stream of socks.
+     */
+    Stream<SocksResponse> streamAll(SocksQuery query, int fetchSize, Duration timeout);
+}
@@ -0,0 +1,147 @@
+package com.javarest.socks.repository;
+
+import com.javarest.socks.dto.CottonPercentageFilter;
+import com.javarest.socks.dto.SocksRequest;
+import com.javarest.socks.dto.SocksResponse;
+import com.javarest.socks.sql.UpsertStatement;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class SocksRepositoryCustomImpl implements SocksRepositoryCustom {
+
+    private static final SocksQueryShapes SHAPES = new SocksQueryShapes();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final ColorDictionary colorDictionary;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int upsertQuantity(String color, int cottonPercentage, int quantity) {
+        return entityManager.createNativeQuery(upsertStatement().getSql())
+                .setParameter("colorId", colorDictionary.intern(color))
+                .setParameter("cottonPercentage", cottonPercentage)
+                .setParameter("quantity", quantity)
+                .executeUpdate();
+    }
+
+    @Override
+    @Transactional
+    public void upsertQuantities(List<SocksRequest> incomes) {
+        entityManager.flush();
+
+        SqlParameterSource[] batch = new SqlParameterSource[incomes.size()];
+        for (int i = 0; i < incomes.size(); i++) {
+            SocksRequest income = incomes.get(i);
+            batch[i] = new MapSqlParameterSource()
+                    .addValue("colorId", colorDictionary.intern(income.getColor()))
+                    .addValue("cottonPercentage", income.getCottonPercentage())
+                    .addValue("quantity", income.getQuantity());
+        }
+        jdbcTemplate.batchUpdate(upsertStatement().getSql(), batch);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long sumQuantity(String color, CottonPercentageFilter filter) {
+        CottonPercentageFilter cottonFilter = orAny(filter);
+        if (isUnknownColor(color) || cottonFilter.matchesNothing()) {
+            return 0;
+        }
+        TypedQuery<Long> query = entityManager.createQuery(
+                SHAPES.sumQuery(color != null, cottonFilter.rangeCount()), Long.class);
+        bindFilters(query, color, filter);
+        return query.getSingleResult();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SocksResponse> findMatching(SocksQuery query) {
+        if (matchesNothing(query)) {
+            return List.of();
+        }
+        return listQuery(query, false).getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SocksResponse> findPage(SocksQuery query) {
+        if (matchesNothing(query)) {
+            return List.of();
+        }
+        return listQuery(query, query.getAfterId() != null)
+                .setMaxResults(query.getLimit())
+                .getResultList();
+    }
+
+    @Override
+    public Stream<SocksResponse> streamAll(SocksQuery query, int fetchSize, Duration timeout) {
+        if (matchesNothing(query)) {
+            return Stream.empty();
+        }
+        return listQuery(query, false)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_TIMEOUT, (int) Math.max(1, timeout.toSeconds()))
+                .getResultStream();
+    }
+
+    /**
+     * Colors that were never stored can not match, checking them up front also keeps them out of the dictionary.
+     */
+    private boolean isUnknownColor(String color) {
+        return color != null && !colorDictionary.contains(color);
+    }
+
+    private boolean matchesNothing(SocksQuery query) {
+        return isUnknownColor(query.getColor()) || orAny(query.getFilter()).matchesNothing();
+    }
+
+    private static CottonPercentageFilter orAny(CottonPercentageFilter filter) {
+        return filter == null ? CottonPercentageFilter.ANY : filter;
+    }
+
+    private TypedQuery<SocksResponse> listQuery(SocksQuery query, boolean afterPosition) {
+        TypedQuery<SocksResponse> listQuery = entityManager.createQuery(SHAPES.listQuery(query.getColor() != null,
+                orAny(query.getFilter()).rangeCount(), query.getSortField(), query.getDirection(), afterPosition),
+                SocksResponse.class);
+        bindFilters(listQuery, query.getColor(), query.getFilter());
+        if (afterPosition) {
+            listQuery.setParameter("afterKey", query.getAfterKey())
+                    .setParameter("afterId", query.getAfterId());
+        }
+        return listQuery;
+    }
+
+    private void bindFilters(TypedQuery<?> query, String color, CottonPercentageFilter filter) {
+        if (color != null) {
+            query.setParameter("color", color);
+        }
+        orAny(filter).getSqlParameters().forEach((name, value) -> query.setParameter(name, value));
+    }
+
+    private UpsertStatement upsertStatement() {
+        Dialect dialect = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect();
+        return dialect instanceof H2Dialect ? UpsertStatement.H2 : UpsertStatement.POSTGRES;
+    }
+}
@@ -0,0 +1,52 @@
+package com.javarest.socks.repository;
+
+import com.javarest.socks.model.StockMovement;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+
+    @Query("SELECT m FROM StockMovement m WHERE m.compacted = false ORDER BY m.id")
+    List<StockMovement> findPending(Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM StockMovement m " +
+            "WHERE m.compacted = false AND m.color = :color AND m.cottonPercentage = :cottonPercentage")
+    List<StockMovement> findPendingForUpdate(@Param("color") String color,
+                                             @Param("cottonPercentage") int cottonPercentage);
+
+    @Query("SELECT COALESCE(SUM(m.quantity), 0) FROM StockMovement m " +
+            "WHERE m.compacted = false AND m.color = :color AND m.cottonPercentage = :cottonPercentage")
+    long sumPending(@Param("color") String color, @Param("cottonPercentage") int cottonPercentage);
+
+    @Query("SELECT COALESCE(SUM(m.quantity), 0) FROM StockMovement m " +
+            "WHERE m.compacted = false AND m.cottonPercentage BETWEEN :minCotton AND :maxCotton")
+    long sumPendingInRange(@Param("minCotton") int minCotton, @Param("maxCotton") int maxCotton);
+
+    @Query("SELECT COALESCE(SUM(m.quantity), 0) FROM StockMovement m " +
+            "WHERE m.compacted = false AND m.color = :color AND m.cottonPercentage BETWEEN :minCotton AND :maxCotton")
+    long sumPendingInRange(@Param("color") String color, @Param("minCotton") int minCotton,
+                           @Param("maxCotton") int maxCotton);
+
+    @Query("SELECT COUNT(m) FROM StockMovement m " +
+            "WHERE m.compacted = false AND m.color = :color AND m.cottonPercentage = :cottonPercentage")
+    long countPending(@Param("color") String color, @Param("cottonPercentage") int cottonPercentage);
+
+    /**
+     * Marks movements as folded into the balances. Movements already marked by a concurrent compaction
+     * are not counted, so a result smaller than the number of ids means the batch has been taken over.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE StockMovement m SET m.compacted = true WHERE m.id IN :ids AND m.compacted = false")
+    int markCompacted(@Param("ids") Collection<Long> ids);
+}
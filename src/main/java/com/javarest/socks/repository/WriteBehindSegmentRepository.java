@@ -0,0 +1,25 @@
+package com.javarest.socks.repository;
+
+import com.javarest.socks.model.WriteBehindSegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+@Repository
+public interface WriteBehindSegmentRepository extends JpaRepository<WriteBehindSegment, String> {
+
+    @Modifying
+    @Query(value = "INSERT INTO write_behind_segments (name, flushed_at) VALUES (:name, CURRENT_TIMESTAMP)",
+            nativeQuery = true)
+    void insert(@Param("name") String name);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM WriteBehindSegment s WHERE s.name IN :names")
+    int deleteByNames(@Param("names") Collection<String> names);
+}
@@ -0,0 +1,7 @@
+package com.javarest.socks.service;
+
+/**
+ * Structured audit event: what happened, when, and alternating field names and values.
+ */
+record AuditEvent(long timestampMillis, String action, Object[] fields) {
+}
@@ -0,0 +1,73 @@
+package com.javarest.socks.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free ring buffer for many producers and a single consumer. Producers claim a slot with one
+ * compare-and-set on the tail sequence and never block: {@link #offer(Object)} fails when the buffer is full.
+ * A slot is published by storing its element, so the consumer stops at the first claimed but unpublished slot.
+ */
+final class AuditRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> slots;
+
+    private final int mask;
+
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Written by the consumer only.
+     */
+    private volatile long head;
+
+    AuditRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    boolean offer(E element) {
+        while (true) {
+            long sequence = tail.get();
+            if (sequence - head >= slots.length()) {
+                return false;
+            }
+            if (tail.compareAndSet(sequence, sequence + 1)) {
+                slots.lazySet((int) (sequence & mask), element);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Passes up to {@code max} elements to the consumer in claim order. Only one thread may drain.
+     *
+     * @return The number of drained elements.
+     */
+    int drain(Consumer<? super E> consumer, int max) {
+        int drained = 0;
+        long sequence = head;
+        while (drained < max) {
+            int index = (int) (sequence & mask);
+            E element = slots.get(index);
+            if (element == null) {
+                break;
+            }
+            slots.lazySet(index, null);
+            head = ++sequence;
+            consumer.accept(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+}
@@ -0,0 +1,122 @@
+package com.javarest.socks.service;
+
+import com.javarest.socks.dto.BatchJobState;
+import com.javarest.socks.dto.BatchJobStatus;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * State of one asynchronous batch import. Progress is written only by the worker thread
+ * processing the job and read by status requests, so plain volatile fields are sufficient.
+ */
+@Getter
+class BatchImportJob {
+
+    private final UUID id;
+
+    private final String fileName;
+
+    private final Path file;
+
+    private volatile BatchJobState state = BatchJobState.QUEUED;
+
+    /**
+     * Number of file rows whose effects are committed; a resumed run skips them.
+     */
+    private volatile long committedRows;
+
+    private volatile long failedRows;
+
+    private volatile long runStartRows;
+
+    private volatile long runStartNanos;
+
+    private volatile long runEndNanos;
+
+    private volatile Instant finishedAt;
+
+    private volatile String error;
+
+    /**
+     * False once the job has failed in a way another run can not fix, such as a file that is not a workbook.
+     */
+    private volatile boolean resumable = true;
+
+    BatchImportJob(UUID id, String fileName, Path file) {
+        this.id = id;
+        this.fileName = fileName;
+        this.file = file;
+    }
+
+    void start() {
+        runStartRows = committedRows;
+        runStartNanos = System.nanoTime();
+        runEndNanos = 0;
+        error = null;
+        state = BatchJobState.RUNNING;
+    }
+
+    void checkpoint(long committedRows, long newlyFailedRows) {
+        this.failedRows += newlyFailedRows;
+        this.committedRows = committedRows;
+    }
+
+    void complete() {
+        finish(BatchJobState.COMPLETED);
+    }
+
+    void fail(String error) {
+        this.error = error;
+        finish(BatchJobState.FAILED);
+    }
+
+    void failPermanently(String error) {
+        this.resumable = false;
+        fail(error);
+    }
+
+    synchronized boolean requeueIfFailed() {
+        if (state != BatchJobState.FAILED || !resumable) {
+            return false;
+        }
+        state = BatchJobState.QUEUED;
+        finishedAt = null;
+        return true;
+    }
+
+    boolean isExpired(Instant threshold) {
+        Instant finished = finishedAt;
+        return finished != null && finished.isBefore(threshold);
+    }
+
+    BatchJobStatus toStatus() {
+        return BatchJobStatus.builder()
+                .jobId(id)
+                .fileName(fileName)
+                .state(state)
+                .rowsProcessed(committedRows)
+                .rowsFailed(failedRows)
+                .rowsPerSecond(rowsPerSecond())
+                .error(error)
+                .build();
+    }
+
+    private synchronized void finish(BatchJobState finalState) {
+        runEndNanos = System.nanoTime();
+        finishedAt = Instant.now();
+        state = finalState;
+    }
+
+    private long rowsPerSecond() {
+        if (runStartNanos == 0) {
+            return 0;
+        }
+        long end = runEndNanos != 0 ? runEndNanos : System.nanoTime();
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(end - runStartNanos));
+        return (committedRows - runStartRows) * 1000 / elapsedMillis;
+    }
+}
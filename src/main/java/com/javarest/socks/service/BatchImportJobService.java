@@ -0,0 +1,12 @@
+package com.javarest.socks.service;
+
+import com.javarest.socks.dto.BatchJobStatus;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.UUID;
+
+public interface BatchImportJobService {
+    BatchJobStatus submit(MultipartFile file);
+    BatchJobStatus getStatus(UUID jobId);
+    BatchJobStatus resume(UUID jobId);
+}
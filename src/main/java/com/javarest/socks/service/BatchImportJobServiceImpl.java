@@ -0,0 +1,239 @@
+package com.javarest.socks.service;
+
+import com.javarest.socks.config.SocksBatchProperties;
+import com.javarest.socks.dto.BatchJobStatus;
+import com.javarest.socks.dto.SocksRequest;
+import com.javarest.socks.exception.constant.ErrorMessage;
+import com.javarest.socks.exception.exceptions.BatchJobNotFoundException;
+import com.javarest.socks.exception.exceptions.BatchJobNotResumableException;
+import com.javarest.socks.exception.exceptions.FileProcessingException;
+import com.javarest.socks.exception.exceptions.InvalidFileFormatException;
+import com.javarest.socks.util.ExcelUtils;
+import jakarta.validation.Validator;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+@Service
+@AllArgsConstructor
+@Slf4j
+public class BatchImportJobServiceImpl implements BatchImportJobService {
+
+    private final SocksService socksService;
+
+    private final SocksBatchProperties batchProperties;
+
+    private final ThreadPoolTaskExecutor batchImportExecutor;
+
+    private final Validator validator;
+
+    private final Map<UUID, BatchImportJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Stores the uploaded file and queues it for processing on the batch import executor.
+     * The file is kept until the job completes, so that a failed job can be resumed.
+     *
+     * @param file The uploaded Excel file.
+     * @return The initial status of the queued job.
+     * @throws TaskRejectedException If the executor queue is full.
+     */
+    @Override
+    public BatchJobStatus submit(MultipartFile file) {
+        evictExpiredJobs();
+
+        Path jobFile = storeUpload(file);
+        BatchImportJob job = new BatchImportJob(UUID.randomUUID(), file.getOriginalFilename(), jobFile);
+        jobs.put(job.getId(), job);
+
+        try {
+            batchImportExecutor.execute(() -> process(job));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.getId());
+            deleteJobFile(jobFile);
+            log.warn("Batch job for file {} was rejected, executor queue is full.", file.getOriginalFilename());
+            throw e;
+        }
+
+        log.info("Batch job {} has been queued for file {}.", job.getId(), file.getOriginalFilename());
+        return job.toStatus();
+    }
+
+    @Override
+    public BatchJobStatus getStatus(UUID jobId) {
+        return findJob(jobId).toStatus();
+    }
+
+    /**
+     * Queues a failed job again. Processing restarts after the last committed checkpoint,
+     * rows committed by previous runs are skipped.
+     *
+     * @param jobId The identifier of the failed job.
+     * @return The status of the re-queued job.
+     * @throws BatchJobNotResumableException If the job has not failed, or failed because its file is not a workbook.
+     */
+    @Override
+    public BatchJobStatus resume(UUID jobId) {
+        BatchImportJob job = findJob(jobId);
+        if (!job.requeueIfFailed()) {
+            throw new BatchJobNotResumableException(ErrorMessage.BATCH_JOB_NOT_RESUMABLE.getMsg());
+        }
+
+        try {
+            batchImportExecutor.execute(() -> process(job));
+        } catch (TaskRejectedException e) {
+            job.fail(ErrorMessage.BATCH_JOBS_BUSY.getMsg());
+            throw e;
+        }
+
+        log.info("Batch job {} has been queued for resume after {} committed rows.", jobId, job.getCommittedRows());
+        return job.toStatus();
+    }
+
+    private void process(BatchImportJob job) {
+        job.start();
+        CheckpointWriter writer = new CheckpointWriter(job);
+        try {
+            ExcelUtils.parseExcelFile(job.getFile().toFile(), writer, writer::skipMalformedRow);
+            writer.commit();
+            job.complete();
+            deleteJobFile(job.getFile());
+            log.info("Batch job {} completed: Rows = {}, Failed rows = {}.",
+                    job.getId(), job.getCommittedRows(), job.getFailedRows());
+        } catch (InvalidFileFormatException e) {
+            // The file is not a workbook; running it again would fail the same way.
+            job.failPermanently(ErrorMessage.INVALID_FILE_FORMAT.getMsg());
+            deleteJobFile(job.getFile());
+            log.error("Batch job {} failed, file {} is not a valid workbook.", job.getId(), job.getFileName());
+        } catch (Exception e) {
+            job.fail(ErrorMessage.FILE_PROCESSING.getMsg());
+            log.error("Batch job {} failed after {} committed rows.", job.getId(), job.getCommittedRows(), e);
+        }
+    }
+
+    private BatchImportJob findJob(UUID jobId) {
+        BatchImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new BatchJobNotFoundException(ErrorMessage.BATCH_JOB_NOT_FOUND.getMsg());
+        }
+        return job;
+    }
+
+    private Path storeUpload(MultipartFile file) {
+        Path jobFile = null;
+        try {
+            jobFile = Files.createTempFile("socks-batch-job-", ".xlsx");
+            file.transferTo(jobFile);
+            return jobFile;
+        } catch (IOException e) {
+            deleteJobFile(jobFile);
+            log.error("Uploaded file {} could not be stored for a batch job.", file.getOriginalFilename());
+            throw new FileProcessingException(ErrorMessage.FILE_PROCESSING.getMsg());
+        }
+    }
+
+    private void evictExpiredJobs() {
+        Instant threshold = Instant.now().minus(batchProperties.getJobRetention());
+        jobs.values().removeIf(job -> {
+            if (!job.isExpired(threshold)) {
+                return false;
+            }
+            deleteJobFile(job.getFile());
+            return true;
+        });
+    }
+
+    private void deleteJobFile(Path jobFile) {
+        if (jobFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(jobFile);
+        } catch (IOException e) {
+            log.warn("Batch job file {} could not be deleted.", jobFile);
+        }
+    }
+
+    /**
+     * Receives parsed rows of a job and commits them every {@code socks.batch.checkpoint-rows} rows.
+     * Rows already committed by a previous run are skipped, invalid and malformed rows are counted as failed.
+     */
+    private final class CheckpointWriter implements Consumer<SocksRequest> {
+
+        private final BatchImportJob job;
+
+        private final long resumeAfterRow;
+
+        private final int checkpointRows;
+
+        private SocksIncomeBatch chunk = new SocksIncomeBatch();
+
+        private long rowNumber;
+
+        private long chunkRows;
+
+        private long chunkFailedRows;
+
+        private CheckpointWriter(BatchImportJob job) {
+            this.job = job;
+            this.resumeAfterRow = job.getCommittedRows();
+            this.checkpointRows = Math.max(1, batchProperties.getCheckpointRows());
+        }
+
+        @Override
+        public void accept(SocksRequest row) {
+            next(row);
+        }
+
+        /**
+         * Counts a row that could not be parsed as failed. It still takes its place in the row numbering,
+         * so that a resumed run skips it along with the committed rows.
+         */
+        private void skipMalformedRow() {
+            next(null);
+        }
+
+        private void next(SocksRequest row) {
+            rowNumber++;
+            if (rowNumber <= resumeAfterRow) {
+                return;
+            }
+
+            if (row != null && validator.validate(row).isEmpty()) {
+                chunk.add(row);
+            } else {
+                chunkFailedRows++;
+            }
+            chunkRows++;
+
+            if (chunkRows >= checkpointRows) {
+                commit();
+            }
+        }
+
+        private void commit() {
+            if (chunkRows == 0) {
+                return;
+            }
+            if (chunk.getRowCount() > 0) {
+                socksService.registerSocksIncomeBatch(chunk);
+            }
+            job.checkpoint(rowNumber, chunkFailedRows);
+
+            chunk = new SocksIncomeBatch();
+            chunkRows = 0;
+            chunkFailedRows = 0;
+        }
+    }
+}
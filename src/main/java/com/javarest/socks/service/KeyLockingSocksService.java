@@ -0,0 +1,133 @@
+package com.javarest.socks.service;
+
+import com.javarest.socks.dto.BatchImportResult;
+import com.javarest.socks.dto.CottonPercentageFilter;
+import com.javarest.socks.dto.SocksMovement;
+import com.javarest.socks.dto.SocksMovementsResult;
+import com.javarest.socks.dto.SocksPage;
+import com.javarest.socks.dto.SocksRequest;
+import com.javarest.socks.dto.SocksResponse;
+import com.javarest.socks.repository.SocksQuery;
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Serializes mutations of the same consignment through {@link SocksKeyLocks} before they reach
+ * {@link SocksServiceImpl}, so a mutation waits for the stripe before its transaction takes a connection.
+ * The database row locks stay in place and still guarantee correctness; the stripes only keep waiting
+ * requests out of the connection pool. Mutations that lose an optimistic lock conflict are run again
+ * by {@link OptimisticRetry}; every attempt takes the stripes anew, so the backoff between attempts
+ * leaves them to other requests. Buffered incomes are flushed before bulk movements and updates open their
+ * transaction, so the flush never holds a second connection. Incomes that are buffered or appended to the
+ * {@link StockLedger} lock no row, so they skip the stripes. Reads and batch imports are passed through.
+ * Every call is timed by {@link SocksMetrics}.
+ */
+@Service
+@Primary
+@AllArgsConstructor
+public class KeyLockingSocksService implements SocksService {
+
+    private final SocksServiceImpl delegate;
+
+    private final SocksKeyLocks locks;
+
+    private final SocksIncomeBuffer incomeBuffer;
+
+    private final StockLedger stockLedger;
+
+    private final OptimisticRetry retry;
+
+    private final SocksMetrics metrics;
+
+    @Override
+    public void registerSocksIncome(SocksRequest socks) {
+        metrics.time("income", () -> {
+            if (incomeBuffer.isEnabled() || stockLedger.isEnabled()) {
+                // Buffered and ledger incomes never touch the database row.
+                delegate.registerSocksIncome(socks);
+                return;
+            }
+            retry.run("income", () -> locks.withLock(socks.getColor(), socks.getCottonPercentage(), () -> {
+                delegate.registerSocksIncome(socks);
+                return null;
+            }));
+        });
+    }
+
+    @Override
+    public BatchImportResult registerSocksIncomeBatch(SocksIncomeBatch batch) {
+        BatchImportResult result = metrics.time("batch", () -> delegate.registerSocksIncomeBatch(batch));
+        metrics.recordBatch(result);
+        return result;
+    }
+
+    @Override
+    public void registerSocksOutcome(SocksRequest socks) {
+        metrics.time("outcome", () -> retry.run("outcome", () -> locks.withLock(
+                socks.getColor(), socks.getCottonPercentage(), () -> {
+                    delegate.registerSocksOutcome(socks);
+                    return null;
+                })));
+    }
+
+    @Override
+    public SocksMovementsResult registerSocksMovements(List<SocksMovement> movements) {
+        List<MovementKey> keys = movements.stream()
+                .map(movement -> new MovementKey(movement.getColor(), movement.getCottonPercentage()))
+                .toList();
+        return metrics.time("movements", () -> {
+            incomeBuffer.flush();
+            return retry.run("movements", () -> locks.withLocks(keys, () -> delegate.registerSocksMovements(movements)));
+        });
+    }
+
+    /**
+     * Serialized with the mutations of the target consignment; the current consignment of the row is only
+     * known once it is read, so that one is protected by the row lock alone.
+     */
+    @Override
+    public void updateSocksById(Long id, SocksRequest updatedSocks) {
+        metrics.time("update", () -> {
+            incomeBuffer.flush();
+            retry.run("update", () -> locks.withLock(updatedSocks.getColor(), updatedSocks.getCottonPercentage(), () -> {
+                delegate.updateSocksById(id, updatedSocks);
+                return null;
+            }));
+        });
+    }
+
+    @Override
+    public int getSocksCount(String color, CottonPercentageFilter filter) {
+        return metrics.time("count", () -> delegate.getSocksCount(color, filter));
+    }
+
+    @Override
+    public List<SocksResponse> getAllSocksSorted(String color, CottonPercentageFilter filter, String sortField,
+                                                 String sortDirection) {
+        return metrics.time("list", () -> delegate.getAllSocksSorted(color, filter, sortField, sortDirection));
+    }
+
+    @Override
+    public SocksPage getSocksPage(String color, CottonPercentageFilter filter, String sortField, String sortDirection,
+                                  String after, Integer limit) {
+        return metrics.time("page", () -> delegate.getSocksPage(color, filter, sortField, sortDirection, after, limit));
+    }
+
+    @Override
+    public SocksQuery prepareSocksStream(String color, CottonPercentageFilter filter, String sortField,
+                                         String sortDirection) {
+        return delegate.prepareSocksStream(color, filter, sortField, sortDirection);
+    }
+
+    @Override
+    public void streamAllSocksSorted(SocksQuery query, Consumer<SocksResponse> consumer) {
+        metrics.time("stream", () -> delegate.streamAllSocksSorted(query, consumer));
+    }
+
+    private record MovementKey(String color, int cottonPercentage) implements SocksKeyLocks.Key {
+    }
+}
@@ -0,0 +1,80 @@
+package com.javarest.socks.service;
+
+import com.javarest.socks.config.SocksRetryProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a mutation again when its transaction lost an optimistic lock conflict on {@code Socks#version}.
+ * Retries wait a random delay between zero and an exponentially growing bound ("full jitter"), so that
+ * conflicting requests do not collide again in lockstep. Without a conflict the mutation runs once, with no overhead.
+ * <p>
+ * Retries are counted by {@code socks.retry.attempts} and mutations that still conflict after
+ * {@code socks.retry.max-attempts} runs by {@code socks.retry.exhausted}, both tagged by operation.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OptimisticRetry {
+
+    private final SocksRetryProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Runs the mutation, which must open its own transaction, until it commits or the attempts are used up.
+     *
+     * @param operation Name of the mutation in the metrics.
+     * @throws OptimisticLockingFailureException If the last attempt conflicts as well.
+     */
+    public <T> T run(String operation, Supplier<T> mutation) {
+        int maxAttempts = Math.max(1, properties.getMaxAttempts());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return mutation.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    counter("socks.retry.exhausted", operation).increment();
+                    log.warn("Socks {} still conflicts after {} attempts.", operation, attempt);
+                    throw e;
+                }
+                counter("socks.retry.attempts", operation).increment();
+                backOff(attempt);
+            }
+        }
+    }
+
+    public void run(String operation, Runnable mutation) {
+        run(operation, () -> {
+            mutation.run();
+            return null;
+        });
+    }
+
+    private void backOff(int attempt) {
+        long bound = Math.min(properties.getMaxBackoff().toMillis(),
+                properties.getInitialBackoff().toMillis() << Math.min(attempt - 1, 20));
+        if (bound <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry", e);
+        }
+    }
+
+    private Counter counter(String name, String operation) {
+        return Counter.builder(name)
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
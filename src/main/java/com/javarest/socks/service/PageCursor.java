@@ -0,0 +1,82 @@
+package com.javarest.socks.service;
+
+import com.javarest.socks.exception.constant.ErrorMessage;
+import com.javarest.socks.exception.exceptions.InvalidPageRequestException;
+import com.javarest.socks.dto.SocksResponse;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a keyset page: the sort field and direction it was produced for,
+ * the value of the sort key and the row id. Encoded as URL-safe Base64 so clients treat it as opaque.
+ */
+final class PageCursor {
+
+    private static final String SEPARATOR = "\n";
+
+    private final String sortField;
+
+    private final Sort.Direction direction;
+
+    private final long id;
+
+    private final Object key;
+
+    private PageCursor(String sortField, Sort.Direction direction, long id, Object key) {
+        this.sortField = sortField;
+        this.direction = direction;
+        this.id = id;
+        this.key = key;
+    }
+
+    static PageCursor of(SocksResponse lastRow, Sort.Order order) {
+        Object key = switch (order.getProperty()) {
+            case "id" -> lastRow.getId();
+            case "color" -> lastRow.getColor();
+            case "cottonPercentage" -> lastRow.getCottonPercentage();
+            case "quantity" -> lastRow.getQuantity();
+            default -> throw new InvalidPageRequestException(ErrorMessage.INVALID_PAGE_REQUEST.getMsg());
+        };
+        return new PageCursor(order.getProperty(), order.getDirection(), lastRow.getId(), key);
+    }
+
+    /**
+     * Decodes a cursor and checks that it was produced for the requested sort order.
+     *
+     * @throws InvalidPageRequestException If the cursor is malformed or belongs to another sort order.
+     */
+    static PageCursor decode(String cursor, Sort.Order order) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split(SEPARATOR, 4);
+            if (parts.length != 4 || !parts[0].equals(order.getProperty())
+                    || Sort.Direction.fromString(parts[1]) != order.getDirection()) {
+                throw new InvalidPageRequestException(ErrorMessage.INVALID_PAGE_REQUEST.getMsg());
+            }
+            long id = Long.parseLong(parts[2]);
+            Object key = switch (parts[0]) {
+                case "id" -> Long.parseLong(parts[3]);
+                case "color" -> parts[3];
+                default -> Integer.parseInt(parts[3]);
+            };
+            return new PageCursor(parts[0], order.getDirection(), id, key);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPageRequestException(ErrorMessage.INVALID_PAGE_REQUEST.getMsg());
+        }
+    }
+
+    String encode() {
+        String raw = sortField + SEPARATOR + direction + SEPARATOR + id + SEPARATOR + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    long getId() {
+        return id;
+    }
+
+    Object getKey() {
+        return key;
+    }
+}
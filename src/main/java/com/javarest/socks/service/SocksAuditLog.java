@@ -0,0 +1,207 @@
+package com.javarest.socks.service;
+
+import com.javarest.socks.config.SocksAuditProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Audit trail of stock mutations, kept off the request threads. {@link #record(String, Object...)} only puts
+ * the event into a bounded {@link AuditRingBuffer}; a single background writer drains it in batches of up to
+ * {@code socks.audit.batch-size} events and appends them to {@code socks.audit.file} as JSON lines, with one
+ * write and flush per batch. When the writer falls behind and the buffer is full, events are dropped and
+ * counted as {@code socks.audit.dropped} rather than slowing requests down.
+ */
+@Component
+@Slf4j
+public class SocksAuditLog implements MeterBinder {
+
+    private final SocksAuditProperties properties;
+
+    private final AuditRingBuffer<AuditEvent> buffer;
+
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile boolean running;
+
+    private Thread writer;
+
+    public SocksAuditLog(SocksAuditProperties properties) {
+        this.properties = properties;
+        this.buffer = new AuditRingBuffer<>(properties.getBufferSize());
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Queues an audit event without waiting for I/O.
+     *
+     * @param action The kind of mutation, e.g. {@code income}.
+     * @param fields Alternating field names and values of the event.
+     */
+    public void record(String action, Object... fields) {
+        if (!isEnabled()) {
+            return;
+        }
+        if (!buffer.offer(new AuditEvent(System.currentTimeMillis(), action, fields))) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Queues an audit event once the current transaction commits, so that rolled back mutations are not audited;
+     * without a transaction it is queued immediately.
+     *
+     * @param action The kind of mutation, e.g. {@code income}.
+     * @param fields Alternating field names and values of the event.
+     */
+    public void recordAfterCommit(String action, Object... fields) {
+        if (!isEnabled()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(action, fields);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(action, fields);
+            }
+        });
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!isEnabled()) {
+            return;
+        }
+        Path file = properties.getFile().toAbsolutePath();
+        Files.createDirectories(file.getParent());
+        BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        running = true;
+        writer = Thread.ofPlatform()
+                .name("socks-audit-writer")
+                .daemon()
+                .start(() -> writeLoop(out));
+    }
+
+    /**
+     * Stops the writer once the events recorded so far are written.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("socks.audit.dropped", dropped, LongAdder::sum)
+                .description("Audit events dropped because the buffer was full")
+                .register(registry);
+        Gauge.builder("socks.audit.backlog", buffer, AuditRingBuffer::size)
+                .description("Audit events waiting to be written")
+                .register(registry);
+    }
+
+    private void writeLoop(BufferedWriter out) {
+        StringBuilder batch = new StringBuilder(256 * Math.max(1, properties.getBatchSize()));
+        long idleNanos = properties.getFlushInterval().toNanos();
+        try (out) {
+            while (true) {
+                int drained = buffer.drain(event -> appendJson(batch, event), Math.max(1, properties.getBatchSize()));
+                if (drained > 0) {
+                    write(out, batch);
+                } else if (running) {
+                    LockSupport.parkNanos(idleNanos);
+                } else {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Audit log {} could not be closed.", properties.getFile(), e);
+        }
+    }
+
+    private void write(Writer out, StringBuilder batch) {
+        try {
+            out.append(batch);
+            out.flush();
+        } catch (IOException e) {
+            log.warn("Audit events could not be written to {}.", properties.getFile(), e);
+        }
+        batch.setLength(0);
+    }
+
+    static void appendJson(StringBuilder line, AuditEvent event) {
+        line.append("{\"time\":\"").append(Instant.ofEpochMilli(event.timestampMillis()))
+                .append("\",\"action\":");
+        appendValue(line, event.action());
+        Object[] fields = event.fields();
+        for (int i = 0; i + 1 < fields.length; i += 2) {
+            line.append(',');
+            appendValue(line, String.valueOf(fields[i]));
+            line.append(':');
+            appendValue(line, fields[i + 1]);
+        }
+        line.append("}\n");
+    }
+
+    private static void appendValue(StringBuilder line, Object value) {
+        if (value == null || value instanceof Number || value instanceof Boolean) {
+            line.append(value);
+            return;
+        }
+        String text = value.toString();
+        line.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> line.append("\\\"");
+                case '\\' -> line.append("\\\\");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\t' -> line.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+                }
+            }
+        }
+        line.append('"');
+    }
+}
@@ -0,0 +1,144 @@
+package com.javarest.socks.service;
+
+import com.javarest.socks.config.SocksQueryProperties;
+import com.javarest.socks.dto.CottonPercentageFilter;
+import com.javarest.socks.model.Socks;
+import com.javarest.socks.repository.SocksRepository;
+import com.javarest.socks.sql.ColorNames;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory read model answering socks count requests without touching the database.
+ * Cotton percentage only ranges over 0..100, so every color keeps a prefix-sum array of 102 entries
+ * and any range, {@code <}, {@code >} or {@code =} filter is answered with one subtraction.
+ * The index is loaded from the table at startup and kept up to date by {@link SocksServiceImpl}
+ * mutations once they are committed.
+ * <p>
+ * The index assumes this application is the only writer of the socks table. Changes made by other
+ * processes, including the reactive module which writes through R2DBC, are not seen until
+ * {@link #rebuild()} runs again, so {@code socks.query.count-index-enabled} must be switched off
+ * when several writers share the database.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SocksCountIndex {
+
+    static final int MAX_COTTON_PERCENTAGE = 100;
+
+    private final SocksRepository repository;
+
+    private final SocksQueryProperties queryProperties;
+
+    private final ConcurrentMap<String, CottonHistogram> byColor = new ConcurrentHashMap<>();
+
+    private final CottonHistogram allColors = new CottonHistogram();
+
+    @PostConstruct
+    public void rebuild() {
+        if (!isEnabled()) {
+            return;
+        }
+        byColor.clear();
+        allColors.clear();
+        long consignments = 0;
+        for (Socks socks : repository.findAll()) {
+            add(socks.getColor(), socks.getCottonPercentage(), socks.getQuantity());
+            consignments++;
+        }
+        log.info("Socks count index has been built from {} consignments.", consignments);
+    }
+
+    public boolean isEnabled() {
+        return queryProperties.isCountIndexEnabled();
+    }
+
+    /**
+     * Counts socks matching the color and cotton percentage filter.
+     *
+     * @param color  The color of the socks (optional). Pass null to count all colors.
+     * @param filter The cotton percentage filter (optional). Pass null to count all percentages.
+     * @return The total quantity of matching socks.
+     * @throws ArithmeticException If the total quantity does not fit in an int.
+     */
+    public int count(String color, CottonPercentageFilter filter) {
+        CottonHistogram histogram = color == null ? allColors : byColor.get(ColorNames.canonical(color));
+        if (histogram == null) {
+            return 0;
+        }
+        if (filter == null) {
+            return Math.toIntExact(histogram.sum(0, MAX_COTTON_PERCENTAGE));
+        }
+        long total = 0;
+        for (int i = 0; i < filter.rangeCount(); i++) {
+            total += histogram.sum(filter.lowerBound(i), filter.upperBound(i));
+        }
+        return Math.toIntExact(total);
+    }
+
+    /**
+     * Applies a quantity change once the surrounding transaction commits, or immediately
+     * when no transaction is active. Changes of rolled back transactions are never applied.
+     *
+     * @param color            The color of the changed consignment.
+     * @param cottonPercentage The cotton percentage of the changed consignment.
+     * @param delta            The quantity change, negative for outcomes.
+     */
+    public void applyAfterCommit(String color, int cottonPercentage, long delta) {
+        if (!isEnabled()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(color, cottonPercentage, delta);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                add(color, cottonPercentage, delta);
+            }
+        });
+    }
+
+    void add(String color, int cottonPercentage, long delta) {
+        byColor.computeIfAbsent(ColorNames.canonical(color), key -> new CottonHistogram()).add(cottonPercentage, delta);
+        allColors.add(cottonPercentage, delta);
+    }
+
+    /**
+     * Prefix sums of quantities per cotton percentage: {@code prefixSums[i]} holds the total
+     * quantity of socks with cotton percentage below {@code i}.
+     */
+    private static final class CottonHistogram {
+
+        private final long[] prefixSums = new long[MAX_COTTON_PERCENTAGE + 2];
+
+        synchronized void add(int cottonPercentage, long delta) {
+            for (int i = cottonPercentage + 1; i < prefixSums.length; i++) {
+                prefixSums[i] += delta;
+            }
+        }
+
+        synchronized long sum(int minPercentage, int maxPercentage) {
+            int from = Math.max(minPercentage, 0);
+            int to = Math.min(maxPercentage, MAX_COTTON_PERCENTAGE);
+            if (from > to) {
+                return 0;
+            }
+            return prefixSums[to + 1] - prefixSums[from];
+        }
+
+        synchronized void clear() {
+            Arrays.fill(prefixSums, 0);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.javarest.socks.service;
+
+import com.javarest.socks.dto.SocksRequest;
+import com.javarest.socks.exception.constant.ErrorMessage;
+import com.javarest.socks.exception.exceptions.QuantityOverflowException;
+import com.javarest.socks.sql.ColorNames;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Accumulates income rows of a batch upload, merging rows with the same canonical color and cotton percentage
+ * so that every consignment is written to the database only once. Memory use depends on the number
+ * of distinct consignments, not on the number of rows.
+ * <p>
+ * Merged incomes are ordered by color and cotton percentage, the order in which bulk movements lock
+ * consignments, so concurrent batch upserts and bulk movements lock rows in the same order and can not deadlock.
+ */
+public class SocksIncomeBatch {
+
+    private final Map<Key, Integer> quantities = new TreeMap<>(Key.ORDER);
+
+    private long rowCount;
+
+    /**
+     * @throws QuantityOverflowException If the merged quantity of the consignment exceeds the integer range.
+     */
+    public void add(SocksRequest socks) {
+        try {
+            quantities.merge(new Key(ColorNames.canonical(socks.getColor()), socks.getCottonPercentage()),
+                    socks.getQuantity(), Math::addExact);
+        } catch (ArithmeticException e) {
+            throw new QuantityOverflowException(ErrorMessage.QUANTITY_OVERFLOW.getMsg());
+        }
+        rowCount++;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public List<SocksRequest> getMergedIncomes() {
+        List<SocksRequest> incomes = new ArrayList<>(quantities.size());
+        quantities.forEach((key, quantity) -> incomes.add(SocksRequest.builder()
+                .color(key.color())
+                .cottonPercentage(key.cottonPercentage())
+                .quantity(quantity)
+                .build()));
+        return incomes;
+    }
+
+    private record Key(String color, int cottonPercentage) {
+
+        private static final Comparator<Key> ORDER = Comparator.comparing(Key::color)
+                .thenComparingInt(Key::cottonPercentage);
+    }
+}
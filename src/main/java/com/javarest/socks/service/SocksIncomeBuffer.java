@@ -0,0 +1,503 @@
+package com.javarest.socks.service;
+
+import com.javarest.socks.config.SocksBatchProperties;
+import com.javarest.socks.config.SocksWriteBehindProperties;
+import com.javarest.socks.dto.CottonPercentageFilter;
+import com.javarest.socks.dto.SocksRequest;
+import com.javarest.socks.repository.SocksRepository;
+import com.javarest.socks.repository.WriteBehindSegmentRepository;
+import com.javarest.socks.sql.ColorNames;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+/**
+ * Write-behind buffer of single socks incomes, enabled by {@code socks.write-behind.enabled}.
+ * Incomes are summed per canonical color and cotton percentage in a {@link LongAdder} and written as one
+ * batched upsert every {@code flush-interval}, or as soon as {@code flush-threshold} events are buffered.
+ * <p>
+ * Every income is appended to a write-ahead log segment before it is buffered. A flush seals the current
+ * segment, records its name in {@code write_behind_segments} in the same transaction as the incomes, and deletes
+ * the file afterwards. At the next startup, segments left behind by a crashed process are written again unless
+ * they are recorded as committed, so a crash between the commit and the deletion does not apply incomes twice.
+ * Segments are flushed to the operating system on every append, which survives a process crash but not a power loss.
+ * <p>
+ * Flushes run one at a time, but the flush lock is only held to swap the buffer and to publish the result,
+ * never while the database is written; a flush arriving meanwhile waits on a condition for the running one.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SocksIncomeBuffer {
+
+    private static final String SEGMENT_PREFIX = "income-";
+
+    private static final String SEGMENT_SUFFIX = ".wal";
+
+    private final SocksRepository repository;
+
+    private final SocksCountIndex countIndex;
+
+    private final SocksWriteBehindProperties properties;
+
+    private final SocksBatchProperties batchProperties;
+
+    private final PlatformTransactionManager transactionManager;
+
+    private final WriteBehindSegmentRepository segmentRepository;
+
+    /**
+     * Incomes are buffered under the shared lock; a flush takes the exclusive lock only to swap the buffer
+     * and the log segment, so an income is always logged in the segment of the buffer it was added to.
+     */
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final Condition flushDone = flushLock.newCondition();
+
+    /**
+     * Whether a flush is writing to the database, guarded by {@link #flushLock}.
+     */
+    private boolean writing;
+
+    private final AtomicLong bufferedEvents = new AtomicLong();
+
+    private volatile ConcurrentMap<Key, LongAdder> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Incomes being written by the running flush, counted until the commit is published to the count index.
+     */
+    private volatile Map<Key, LongAdder> flushing = Map.of();
+
+    /**
+     * Segments whose incomes have not been committed yet, guarded by {@link #flushLock}.
+     */
+    private final List<Path> sealedSegments = new ArrayList<>();
+
+    private Segment segment;
+
+    private ScheduledExecutorService flusher;
+
+    /**
+     * Writes the incomes left in the log by a previous run and starts the periodic flush.
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        if (!isEnabled()) {
+            return;
+        }
+        Files.createDirectories(properties.getWalDirectory());
+        long replayed = replaySegments();
+        segment = Segment.create(properties.getWalDirectory());
+        if (replayed > 0) {
+            log.info("Replaying {} buffered socks incomes from the write-ahead log.", replayed);
+        }
+        flushQuietly();
+
+        long intervalMillis = properties.getFlushInterval().toMillis();
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "socks-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the periodic flush and writes the remaining incomes. If that fails, they stay in the log.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        flusher.awaitTermination(properties.getFlushInterval().toMillis() + 5000, TimeUnit.MILLISECONDS);
+        flush();
+        segment.closeAndDelete();
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Logs and buffers an income. It is written to the database by the next flush.
+     *
+     * @param color            The color of the socks in any case.
+     * @param cottonPercentage The cotton percentage of the socks.
+     * @param quantity         The number of socks received.
+     */
+    public void add(String color, int cottonPercentage, int quantity) {
+        Key key = new Key(ColorNames.canonical(color), cottonPercentage);
+        Lock lock = swapLock.readLock();
+        lock.lock();
+        try {
+            segment.append(key, quantity);
+            pending.computeIfAbsent(key, k -> new LongAdder()).add(quantity);
+        } finally {
+            lock.unlock();
+        }
+        if (bufferedEvents.incrementAndGet() == properties.getFlushThreshold()) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    /**
+     * Adds the buffered incomes that are not committed yet to a count read from the database or the count index.
+     * The committed count is read under the same lock that a flush holds while it commits and publishes its
+     * incomes, so an income is never counted both as committed and as buffered, nor missed in between.
+     *
+     * @param color     The color of the socks (optional). Pass null to count all colors.
+     * @param filter    The cotton percentage filter (optional). Pass null to count all percentages.
+     * @param committed Reads the committed quantity of matching socks.
+     * @return The committed and buffered quantity of matching socks.
+     */
+    public long countWithPending(String color, CottonPercentageFilter filter, LongSupplier committed) {
+        if (!isEnabled()) {
+            return committed.getAsLong();
+        }
+        String name = ColorNames.canonical(color);
+        CottonPercentageFilter cottonFilter = filter == null ? CottonPercentageFilter.ANY : filter;
+
+        Lock lock = swapLock.readLock();
+        lock.lock();
+        try {
+            return committed.getAsLong() + sum(pending, name, cottonFilter) + sum(flushing, name, cottonFilter);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Counts buffered incomes that are not committed yet.
+     *
+     * @param color  The color of the socks (optional). Pass null to count all colors.
+     * @param filter The cotton percentage filter (optional). Pass null to count all percentages.
+     * @return The buffered quantity of matching socks.
+     */
+    public int pendingCount(String color, CottonPercentageFilter filter) {
+        return Math.toIntExact(countWithPending(color, filter, () -> 0));
+    }
+
+    /**
+     * Writes all buffered incomes to the database in one transaction of its own. Outcomes, bulk movements and
+     * updates call this before they open their transaction, so that they see the incomes registered before them.
+     * Does nothing when write-behind is disabled.
+     */
+    public void flush() {
+        if (!isEnabled()) {
+            return;
+        }
+        Map<Key, LongAdder> drained;
+        List<Path> segments;
+        flushLock.lock();
+        try {
+            while (writing) {
+                flushDone.awaitUninterruptibly();
+            }
+            drained = swap();
+            segments = List.copyOf(sealedSegments);
+            if (drained.isEmpty()) {
+                sealedSegments.clear();
+            } else {
+                writing = true;
+            }
+        } finally {
+            flushLock.unlock();
+        }
+
+        if (!drained.isEmpty()) {
+            boolean written = false;
+            try {
+                write(drained, segments);
+                written = true;
+            } catch (RuntimeException e) {
+                // Incomes stay buffered and their sealed segments stay on disk until a flush succeeds.
+                restore(drained);
+                throw e;
+            } finally {
+                finishWriting(written ? segments : List.of());
+            }
+        }
+        deleteSegments(segments);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Buffered socks incomes could not be written, retrying with the next flush.", e);
+        }
+    }
+
+    private void finishWriting(List<Path> committedSegments) {
+        flushLock.lock();
+        try {
+            sealedSegments.removeAll(committedSegments);
+            writing = false;
+            flushDone.signalAll();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private Map<Key, LongAdder> swap() {
+        Lock lock = swapLock.writeLock();
+        lock.lock();
+        try {
+            Map<Key, LongAdder> drained = pending;
+            if (drained.isEmpty()) {
+                return drained;
+            }
+            pending = new ConcurrentHashMap<>();
+            flushing = drained;
+            bufferedEvents.set(0);
+            sealedSegments.add(segment.close());
+            segment = Segment.create(properties.getWalDirectory());
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Upserts the incomes and records their segments in one transaction. The exclusive swap lock is taken right
+     * before the commit and released after the incomes have been applied to the count index and dropped from
+     * {@link #flushing}, so {@link #countWithPending} sees the incomes either as buffered or as committed.
+     */
+    private void write(Map<Key, LongAdder> drained, List<Path> segments) {
+        List<SocksRequest> incomes = new ArrayList<>(drained.size());
+        drained.forEach((key, quantity) -> incomes.add(SocksRequest.builder()
+                .color(key.color())
+                .cottonPercentage(key.cottonPercentage())
+                .quantity(Math.toIntExact(quantity.sum()))
+                .build()));
+        int chunkSize = Math.max(1, batchProperties.getChunkSize());
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transaction.executeWithoutResult(status -> {
+            for (int from = 0; from < incomes.size(); from += chunkSize) {
+                repository.upsertQuantities(incomes.subList(from, Math.min(from + chunkSize, incomes.size())));
+            }
+            segments.forEach(path -> segmentRepository.insert(path.getFileName().toString()));
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new PublishingSynchronization(incomes));
+            } else {
+                publish(incomes);
+            }
+        });
+        log.info("Buffered socks incomes have been written: Consignments = {}", incomes.size());
+    }
+
+    private void publish(List<SocksRequest> incomes) {
+        if (countIndex.isEnabled()) {
+            incomes.forEach(income -> countIndex.add(
+                    income.getColor(), income.getCottonPercentage(), income.getQuantity()));
+        }
+        flushing = Map.of();
+    }
+
+    private void restore(Map<Key, LongAdder> drained) {
+        Lock lock = swapLock.writeLock();
+        lock.lock();
+        try {
+            drained.forEach((key, quantity) -> pending.computeIfAbsent(key, k -> new LongAdder()).add(quantity.sum()));
+            flushing = Map.of();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long replaySegments() throws IOException {
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(properties.getWalDirectory())) {
+            segments = files.filter(Segment::isSegment).sorted().toList();
+        }
+        long events = 0;
+        for (Path path : segments) {
+            if (segmentRepository.existsById(path.getFileName().toString())) {
+                // Committed before the process stopped, only the deletion of the file was lost.
+                log.info("Write-ahead log segment {} has already been written, skipping it.", path);
+                deleteSegments(List.of(path));
+                continue;
+            }
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                String[] fields = line.split("\t", 3);
+                if (fields.length < 3) {
+                    // The last line of a crashed process may be incomplete.
+                    continue;
+                }
+                Key key = new Key(fields[2], Integer.parseInt(fields[0]));
+                pending.computeIfAbsent(key, k -> new LongAdder()).add(Long.parseLong(fields[1]));
+                events++;
+            }
+            sealedSegments.add(path);
+        }
+        return events;
+    }
+
+    private void deleteSegments(List<Path> segments) {
+        if (segments.isEmpty()) {
+            return;
+        }
+        for (Path path : segments) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.warn("Write-ahead log segment {} could not be deleted.", path);
+            }
+        }
+        try {
+            segmentRepository.deleteByNames(segments.stream().map(path -> path.getFileName().toString()).toList());
+        } catch (RuntimeException e) {
+            // Rows of deleted segments are never read again, they are only kept until this cleanup succeeds.
+            log.warn("Written write-ahead log segments could not be removed from the database.", e);
+        }
+    }
+
+    private static long sum(Map<Key, LongAdder> buffer, String color, CottonPercentageFilter filter) {
+        long total = 0;
+        for (Map.Entry<Key, LongAdder> entry : buffer.entrySet()) {
+            Key key = entry.getKey();
+            if ((color == null || color.equals(key.color())) && filter.test(key.cottonPercentage())) {
+                total += entry.getValue().sum();
+            }
+        }
+        return total;
+    }
+
+    private record Key(String color, int cottonPercentage) {
+    }
+
+    /**
+     * Holds the exclusive swap lock from right before the commit until the committed incomes are published.
+     */
+    private final class PublishingSynchronization implements TransactionSynchronization {
+
+        private final List<SocksRequest> incomes;
+
+        private boolean locked;
+
+        private PublishingSynchronization(List<SocksRequest> incomes) {
+            this.incomes = incomes;
+        }
+
+        @Override
+        public void beforeCompletion() {
+            swapLock.writeLock().lock();
+            locked = true;
+        }
+
+        @Override
+        public void afterCommit() {
+            publish(incomes);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (locked) {
+                locked = false;
+                swapLock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Append-only log file, one {@code cottonPercentage \t quantity \t color} line per income.
+     */
+    private static final class Segment {
+
+        private final Path path;
+
+        private final BufferedWriter writer;
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private Segment(Path path, BufferedWriter writer) {
+            this.path = path;
+            this.writer = writer;
+        }
+
+        static Segment create(Path directory) {
+            try {
+                Path path = Files.createTempFile(directory, SEGMENT_PREFIX, SEGMENT_SUFFIX);
+                return new Segment(path, Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.APPEND));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Write-ahead log segment could not be created in " + directory, e);
+            }
+        }
+
+        static boolean isSegment(Path path) {
+            String name = path.getFileName().toString();
+            return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+        }
+
+        void append(Key key, int quantity) {
+            lock.lock();
+            try {
+                writer.write(key.cottonPercentage() + "\t" + quantity + "\t" + key.color());
+                writer.newLine();
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Socks income could not be written to " + path, e);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Path close() {
+            lock.lock();
+            try {
+                writer.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Write-ahead log segment " + path + " could not be closed", e);
+            } finally {
+                lock.unlock();
+            }
+            return path;
+        }
+
+        void closeAndDelete() {
+            try {
+                Files.deleteIfExists(close());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Write-ahead log segment " + path + " could not be deleted", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.javarest.socks.service;
+
+import com.javarest.socks.config.SocksLockProperties;
+import com.javarest.socks.sql.ColorNames;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped locks keyed by canonical color and cotton percentage. Mutations of one consignment wait here,
+ * without holding a database connection, instead of queueing on its row lock inside a transaction.
+ * Mutations of consignments on different stripes run in parallel.
+ * <p>
+ * The number of threads waiting on every stripe is published as the {@code socks.locks.queue.depth} gauge.
+ */
+@Component
+public class SocksKeyLocks implements MeterBinder {
+
+    private final SocksLockProperties properties;
+
+    private final ReentrantLock[] stripes;
+
+    public SocksKeyLocks(SocksLockProperties properties) {
+        this.properties = properties;
+        this.stripes = new ReentrantLock[Math.max(1, properties.getStripes())];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Runs the action while holding the stripe of the consignment.
+     */
+    public <T> T withLock(String color, int cottonPercentage, Supplier<T> action) {
+        if (!properties.isEnabled()) {
+            return action.get();
+        }
+        ReentrantLock lock = stripes[stripeOf(color, cottonPercentage)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs the action while holding the stripes of all given consignments. Stripes are taken in ascending
+     * order, so callers locking overlapping sets of consignments can not deadlock each other.
+     *
+     * @param keys Pairs of color and cotton percentage.
+     */
+    public <T> T withLocks(Collection<? extends Key> keys, Supplier<T> action) {
+        if (!properties.isEnabled()) {
+            return action.get();
+        }
+        int[] indexes = keys.stream()
+                .mapToInt(key -> stripeOf(key.color(), key.cottonPercentage()))
+                .distinct()
+                .sorted()
+                .toArray();
+        int locked = 0;
+        try {
+            for (int index : indexes) {
+                stripes[index].lock();
+                locked++;
+            }
+            return action.get();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                stripes[indexes[i]].unlock();
+            }
+        }
+    }
+
+    int stripeOf(String color, int cottonPercentage) {
+        int hash = Objects.hash(ColorNames.canonical(color), cottonPercentage);
+        return Math.floorMod(hash ^ (hash >>> 16), stripes.length);
+    }
+
+    /**
+     * Returns the estimated number of threads waiting for the stripe.
+     */
+    public int queueDepth(int stripe) {
+        return stripes[stripe].getQueueLength();
+    }
+
+    public int stripeCount() {
+        return stripes.length;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (int i = 0; i < stripes.length; i++) {
+            int stripe = i;
+            Gauge.builder("socks.locks.queue.depth", () -> queueDepth(stripe))
+                    .description("Threads waiting to mutate consignments of the stripe")
+                    .tag("stripe", String.valueOf(stripe))
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Consignment key of a mutation.
+     */
+    public interface Key {
+        String color();
+
+        int cottonPercentage();
+    }
+}
@@ -0,0 +1,62 @@
+package com.javarest.socks.service;
+
+import com.javarest.socks.dto.BatchImportResult;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Service-level meters of the socks warehouse:
+ * <ul>
+ *     <li>{@code socks.service} timer per service method, tagged with the exception that ended the call, if any;</li>
+ *     <li>{@code socks.batch.rows.per.second} gauge of the last committed batch import.</li>
+ * </ul>
+ * HTTP endpoints, repository queries and the connection pool are timed by the Actuator
+ * ({@code http.server.requests}, {@code spring.data.repository.invocations}, {@code hikaricp.connections.acquire}).
+ */
+@Component
+public class SocksMetrics {
+
+    private final MeterRegistry registry;
+
+    private final AtomicLong batchRowsPerSecond = new AtomicLong();
+
+    public SocksMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        Gauge.builder("socks.batch.rows.per.second", batchRowsPerSecond, AtomicLong::get)
+                .description("Rows per second of the last batch import")
+                .register(registry);
+    }
+
+    public <T> T time(String method, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(registry);
+        String exception = "none";
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("socks.service")
+                    .description("Duration of socks service calls")
+                    .tag("method", method)
+                    .tag("exception", exception)
+                    .register(registry));
+        }
+    }
+
+    public void time(String method, Runnable call) {
+        time(method, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    public void recordBatch(BatchImportResult result) {
+        batchRowsPerSecond.set(result.getRowsPerSecond());
+    }
+}
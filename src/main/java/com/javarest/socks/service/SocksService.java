@@ -1,16 +1,28 @@
 package com.javarest.socks.service;
 
+import com.javarest.socks.dto.BatchImportResult;
 import com.javarest.socks.dto.CottonPercentageFilter;
+import com.javarest.socks.dto.SocksMovement;
+import com.javarest.socks.dto.SocksMovementsResult;
+import com.javarest.socks.dto.SocksPage;
 import com.javarest.socks.dto.SocksRequest;
-import com.javarest.socks.model.Socks;
+import com.javarest.socks.dto.SocksResponse;
+import com.javarest.socks.repository.SocksQuery;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 
 public interface SocksService {
     void registerSocksIncome(SocksRequest socks);
+    BatchImportResult registerSocksIncomeBatch(SocksIncomeBatch batch);
     void registerSocksOutcome(SocksRequest socks);
+    SocksMovementsResult registerSocksMovements(List<SocksMovement> movements);
     void updateSocksById(Long id, SocksRequest updatedSocks);
     int getSocksCount(String color, CottonPercentageFilter filter);
-    List<Socks> getAllSocksSorted(String color, CottonPercentageFilter filter, String sortField, String sortDirection);
+    List<SocksResponse> getAllSocksSorted(String color, CottonPercentageFilter filter, String sortField, String sortDirection);
+    SocksPage getSocksPage(String color, CottonPercentageFilter filter, String sortField, String sortDirection,
+                           String after, Integer limit);
+    SocksQuery prepareSocksStream(String color, CottonPercentageFilter filter, String sortField, String sortDirection);
+    void streamAllSocksSorted(SocksQuery query, Consumer<SocksResponse> consumer);
 }
@@ -1,17 +1,43 @@
 package com.javarest.socks.service;
 
+import com.javarest.socks.config.SocksBatchProperties;
+import com.javarest.socks.config.SocksQueryProperties;
+import com.javarest.socks.dto.BatchImportResult;
 import com.javarest.socks.dto.CottonPercentageFilter;
+import com.javarest.socks.dto.MovementStatus;
+import com.javarest.socks.dto.MovementType;
+import com.javarest.socks.dto.SocksMovement;
+import com.javarest.socks.dto.SocksMovementResult;
+import com.javarest.socks.dto.SocksMovementsResult;
+import com.javarest.socks.dto.SocksPage;
 import com.javarest.socks.dto.SocksRequest;
+import com.javarest.socks.dto.SocksResponse;
 import com.javarest.socks.exception.constant.ErrorMessage;
 import com.javarest.socks.exception.exceptions.*;
 import com.javarest.socks.model.Socks;
+import com.javarest.socks.repository.ColorDictionary;
+import com.javarest.socks.repository.SocksQuery;
 import com.javarest.socks.repository.SocksRepository;
+import com.javarest.socks.sql.ColorNames;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 
 @Service
@@ -21,200 +47,377 @@ public class SocksServiceImpl implements SocksService {
 
     private final SocksRepository repository;
 
+    private final SocksBatchProperties batchProperties;
+
+    private final SocksCountIndex countIndex;
+
+    private final SocksQueryProperties queryProperties;
+
+    private final ColorDictionary colorDictionary;
+
+    private final SocksIncomeBuffer incomeBuffer;
+
+    private final StockLedger stockLedger;
+
+    private final SocksAuditLog auditLog;
+
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Registers an income with one upsert, buffers it for a batched write when {@code socks.write-behind.enabled},
+     * or appends it to the {@link StockLedger} when {@code socks.ledger.enabled}.
+     */
     @Override
     public void registerSocksIncome(SocksRequest socks) {
-        Socks existingSocks = repository.findByColorAndCottonPercentage(socks.getColor(), socks.getCottonPercentage())
-                .orElse(null);
-
-        if (existingSocks == null) {
-            existingSocks = Socks.builder()
-                    .color(socks.getColor())
-                    .cottonPercentage(socks.getCottonPercentage())
-                    .quantity(socks.getQuantity())
-                    .build();
-            log.info("New socks income: Color = {}, Cotton percentage = {}, Quantity = {}",
-                    socks.getColor(), socks.getCottonPercentage(), socks.getQuantity());
-        } else {
-            int previousQuantity = existingSocks.getQuantity();
-            existingSocks.setQuantity(existingSocks.getQuantity() + socks.getQuantity());
-            log.warn("Existing socks consignment has been updated through income registration: Color = {}, " +
-                    "Cotton percentage = {}, Previous quantity = {}, Insertion = {}, New quantity = {}",
-                    socks.getColor(), socks.getCottonPercentage(), previousQuantity, socks.getQuantity(),
-                    existingSocks.getQuantity());
+        if (incomeBuffer.isEnabled()) {
+            incomeBuffer.add(socks.getColor(), socks.getCottonPercentage(), socks.getQuantity());
+            audit("income.buffered", socks);
+            return;
         }
+        if (stockLedger.isEnabled()) {
+            stockLedger.recordIncome(socks.getColor(), socks.getCottonPercentage(), socks.getQuantity());
+            audit("income.ledger", socks);
+            return;
+        }
+        repository.upsertQuantity(socks.getColor(), socks.getCottonPercentage(), socks.getQuantity());
+        countIndex.applyAfterCommit(socks.getColor(), socks.getCottonPercentage(), socks.getQuantity());
+        audit("income", socks);
+    }
 
-        repository.save(existingSocks);
+    /**
+     * Registers all incomes of a batch upload in one transaction. Rows with the same color and cotton
+     * percentage are already merged by {@link SocksIncomeBatch}; the remaining upserts are sent
+     * as JDBC batches of {@code socks.batch.chunk-size} statements.
+     *
+     * @param batch The merged batch rows.
+     * @return Row counts and throughput of the import.
+     */
+    @Override
+    @Transactional
+    public BatchImportResult registerSocksIncomeBatch(SocksIncomeBatch batch) {
+        long startNanos = System.nanoTime();
+        List<SocksRequest> incomes = batch.getMergedIncomes();
+        int chunkSize = Math.max(1, batchProperties.getChunkSize());
+
+        for (int from = 0; from < incomes.size(); from += chunkSize) {
+            repository.upsertQuantities(incomes.subList(from, Math.min(from + chunkSize, incomes.size())));
+        }
+        incomes.forEach(income -> countIndex.applyAfterCommit(
+                income.getColor(), income.getCottonPercentage(), income.getQuantity()));
+
+        BatchImportResult result = new BatchImportResult(batch.getRowCount(), 0, incomes.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        auditLog.recordAfterCommit("income.batch", "rows", result.getRows(), "consignments", result.getConsignments(),
+                "elapsedMillis", result.getElapsedMillis());
+        return result;
     }
 
     @Override
     public void registerSocksOutcome(SocksRequest socks) {
-        Socks existingSocks = repository.findByColorAndCottonPercentage(
-                socks.getColor(), socks.getCottonPercentage()
-        ).orElseThrow(() -> new SocksNotFoundException(ErrorMessage.SOCKS_NOT_FOUND.getMsg()));
+        incomeBuffer.flush();
+        if (!colorDictionary.contains(socks.getColor())) {
+            throw new SocksNotFoundException(ErrorMessage.SOCKS_NOT_FOUND.getMsg());
+        }
+        if (stockLedger.isEnabled()) {
+            stockLedger.recordOutcome(socks.getColor(), socks.getCottonPercentage(), socks.getQuantity());
+            audit("outcome.ledger", socks);
+            return;
+        }
+        int updatedRows = repository.decreaseQuantityIfAvailable(
+                socks.getColor(), socks.getCottonPercentage(), socks.getQuantity());
 
-        if (existingSocks.getQuantity() < socks.getQuantity()) {
-            throw new InsufficientStockException(ErrorMessage.INSUFFICIENT_STOCK.getMsg());
+        if (updatedRows == 0) {
+            if (repository.existsByColorAndCottonPercentage(socks.getColor(), socks.getCottonPercentage())) {
+                throw new InsufficientStockException(ErrorMessage.INSUFFICIENT_STOCK.getMsg());
+            }
+            throw new SocksNotFoundException(ErrorMessage.SOCKS_NOT_FOUND.getMsg());
         }
+        countIndex.applyAfterCommit(socks.getColor(), socks.getCottonPercentage(), -socks.getQuantity());
+        audit("outcome", socks);
+    }
 
-        existingSocks.setQuantity(existingSocks.getQuantity() - socks.getQuantity());
-        repository.save(existingSocks);
+    /**
+     * Registers a bulk of incomes and outcomes all-or-nothing in one transaction.
+     * Entries are grouped by canonical color and cotton percentage, and the consignments are locked in that
+     * order, so concurrent bulks always lock shared rows in the same order and can not deadlock each other.
+     * Every consignment is read and written once; its entries are applied in request order against the locked stock,
+     * which includes the pending movements of the {@link StockLedger}. Buffered incomes must be flushed
+     * before, outside the transaction, as {@link KeyLockingSocksService} does.
+     *
+     * @param movements The movements in the order they happened.
+     * @return The per-entry results, all of them applied.
+     * @throws SocksMovementsRejectedException If any entry can not be applied; nothing is registered then.
+     */
+    @Override
+    @Transactional
+    public SocksMovementsResult registerSocksMovements(List<SocksMovement> movements) {
+        Map<MovementKey, List<Integer>> entriesByKey = new TreeMap<>(
+                Comparator.comparing(MovementKey::color).thenComparingInt(MovementKey::cottonPercentage));
+        for (int i = 0; i < movements.size(); i++) {
+            SocksMovement movement = movements.get(i);
+            entriesByKey.computeIfAbsent(new MovementKey(ColorNames.canonical(movement.getColor()),
+                    movement.getCottonPercentage()), key -> new ArrayList<>()).add(i);
+        }
 
-        log.info("Socks outcome: Color = {}, Cotton percentage = {}, Quantity = {}",
-                socks.getColor(), socks.getCottonPercentage(), socks.getQuantity());
+        SocksMovementResult[] results = new SocksMovementResult[movements.size()];
+        boolean rejected = false;
+        for (Map.Entry<MovementKey, List<Integer>> entries : entriesByKey.entrySet()) {
+            rejected |= !applyMovements(entries.getKey(), entries.getValue(), movements, results);
+        }
+
+        if (rejected) {
+            for (int i = 0; i < results.length; i++) {
+                if (results[i].getStatus() == MovementStatus.APPLIED) {
+                    results[i] = new SocksMovementResult(i, MovementStatus.NOT_APPLIED, null, null);
+                }
+            }
+            auditLog.record("movements.rejected", "entries", movements.size(), "consignments", entriesByKey.size());
+            throw new SocksMovementsRejectedException(ErrorMessage.MOVEMENTS_REJECTED.getMsg(),
+                    new SocksMovementsResult(false, List.of(results)));
+        }
+        auditLog.recordAfterCommit("movements", "entries", movements.size(), "consignments", entriesByKey.size());
+        return new SocksMovementsResult(true, List.of(results));
     }
 
+    /**
+     * Locks the consignment of the key and applies its entries in request order.
+     *
+     * @return Whether all entries of the key could be applied.
+     */
+    private boolean applyMovements(MovementKey key, List<Integer> indexes, List<SocksMovement> movements,
+                                   SocksMovementResult[] results) {
+        boolean hasIncome = indexes.stream().anyMatch(i -> movements.get(i).getType() == MovementType.INCOME);
+        Optional<Socks> locked;
+        if (hasIncome) {
+            // Creates a missing consignment; an existing one is locked by the upsert.
+            repository.upsertQuantity(key.color(), key.cottonPercentage(), 0);
+            locked = repository.findForUpdate(key.color(), key.cottonPercentage());
+        } else {
+            locked = stockLedger.lockBalance(key.color(), key.cottonPercentage());
+        }
+
+        if (locked.isEmpty()) {
+            indexes.forEach(i -> results[i] = new SocksMovementResult(i, MovementStatus.REJECTED, null,
+                    ErrorMessage.SOCKS_NOT_FOUND.getMsg()));
+            return false;
+        }
+
+        Socks socks = locked.get();
+        int initialStock = socks.getQuantity() + stockLedger.pendingQuantity(key.color(), key.cottonPercentage());
+        int stock = initialStock;
+        boolean applied = true;
+        for (int i : indexes) {
+            SocksMovement movement = movements.get(i);
+            ErrorMessage rejection = null;
+            if (movement.getType() == MovementType.INCOME) {
+                if (stock > Integer.MAX_VALUE - movement.getQuantity()) {
+                    rejection = ErrorMessage.QUANTITY_OVERFLOW;
+                } else {
+                    stock += movement.getQuantity();
+                }
+            } else if (stock >= movement.getQuantity()) {
+                stock -= movement.getQuantity();
+            } else {
+                rejection = ErrorMessage.INSUFFICIENT_STOCK;
+            }
+            if (rejection != null) {
+                results[i] = new SocksMovementResult(i, MovementStatus.REJECTED, null, rejection.getMsg());
+                applied = false;
+                continue;
+            }
+            results[i] = new SocksMovementResult(i, MovementStatus.APPLIED, stock, null);
+        }
+
+        if (applied) {
+            countIndex.applyAfterCommit(key.color(), key.cottonPercentage(), stock - initialStock);
+            socks.setQuantity(socks.getQuantity() + stock - initialStock);
+        }
+        return applied;
+    }
+
+    /**
+     * Overwrites a consignment. Pending ledger movements of the consignment are superseded by the new quantity.
+     * Buffered incomes must be flushed before, outside the transaction, as {@link KeyLockingSocksService} does.
+     */
     @Override
+    @Transactional
     public void updateSocksById(Long id, SocksRequest updatedSocks) {
         Socks existingSocks = repository.findById(id)
                 .orElseThrow(() -> new SocksNotFoundException("Socks with ID " + id + " was not found."));
 
+        String previousColor = existingSocks.getColor();
+        int previousCottonPercentage = existingSocks.getCottonPercentage();
+        int previousQuantity = existingSocks.getQuantity() + stockLedger.settle(previousColor, previousCottonPercentage);
+
         existingSocks.setColor(updatedSocks.getColor());
         existingSocks.setCottonPercentage(updatedSocks.getCottonPercentage());
         existingSocks.setQuantity(updatedSocks.getQuantity());
 
         repository.save(existingSocks);
-
-        log.info("Socks consignment has been updated: ID = {}, Color = {}, Cotton percentage = {}, Quantity = {}",
-                id, updatedSocks.getColor(), updatedSocks.getCottonPercentage(), updatedSocks.getQuantity());
+        countIndex.applyAfterCommit(previousColor, previousCottonPercentage, -previousQuantity);
+        countIndex.applyAfterCommit(updatedSocks.getColor(), updatedSocks.getCottonPercentage(), updatedSocks.getQuantity());
+        auditLog.recordAfterCommit("update", "id", id, "color", updatedSocks.getColor(),
+                "cottonPercentage", updatedSocks.getCottonPercentage(), "quantity", updatedSocks.getQuantity());
     }
 
     /**
      * Retrieves a sorted list of socks based on the specified filter parameters.
-     * The method handles different cases of filtering:
-     * - If neither `color` nor `filter` is provided, it returns all socks.
-     * - If only `color` is provided, it filters by color.
-     * - If `filter` specifies a range (min and max values), it filters by the range.
-     * - If `filter` specifies an operator (e.g., "<", ">", "="), it filters using the operator.
+     * Any combination of color and cotton percentage filter is evaluated by one parameterized query,
+     * see {@link SocksRepository#findMatching(SocksQuery)}.
      *
      * @param color          The color of the socks to filter (optional).
      * @param filter         A CottonPercentageFilter object containing the percentage filter criteria (optional).
      *                       Can be a range or include a comparison operation.
-     * @param sortField      The field by which to sort the socks (e.g., "color", "quantity").
+     * @param sortField      The field by which to sort the socks: id, color, cottonPercentage or quantity.
      * @param sortDirection  The sort direction, either "asc" (ascending) or "desc" (descending).
      * @return A list of socks filtered and sorted according to the provided parameters.
-     * @throws com.javarest.socks.exception.exceptions.UnsupportedOperatorException If the operator in the `filter` is unsupported.
+     * @throws InvalidPageRequestException If the sort field is not supported.
+     * @throws UnsupportedOperatorException If the operator in the `filter` is unsupported.
      */
     @Override
-    public List<Socks> getAllSocksSorted(String color, CottonPercentageFilter filter, String sortField, String sortDirection) {
-        log.info("Received a socks Get request. Parameters: color={}, cottonPercentageFilter={}, sortField={}, sortDirection={}",
+    @Transactional(readOnly = true)
+    public List<SocksResponse> getAllSocksSorted(String color, CottonPercentageFilter filter, String sortField, String sortDirection) {
+        log.debug("Listing socks: color={}, cottonPercentageFilter={}, sortField={}, sortDirection={}",
                 color, filter, sortField, sortDirection);
+        return repository.findMatching(buildQuery(color, filter, sortField, sortDirection).build());
+    }
 
-        Sort sort = getSortOrder(sortField, sortDirection);
-
-        if (filter == null && color == null) {
-            return repository.findAll(sort);
+    /**
+     * Retrieves one page of the filtered and sorted socks list using keyset pagination.
+     * Rows are ordered by the sort field and then by id; the next page starts right after the row
+     * encoded in the {@code after} cursor, so paging deeper does not get slower.
+     *
+     * @param color          The color of the socks to filter (optional).
+     * @param filter         A CottonPercentageFilter object containing the percentage filter criteria (optional).
+     * @param sortField      The field by which to sort the socks: id, color, cottonPercentage or quantity.
+     * @param sortDirection  The sort direction, either "asc" (ascending) or "desc" (descending).
+     * @param after          The cursor returned with the previous page, or null for the first page.
+     * @param limit          The page size (optional), up to {@code socks.query.max-page-size}.
+     * @return The page of socks with the cursor of the next page, which is null on the last page.
+     * @throws InvalidPageRequestException If the limit, the cursor or the sort field is invalid.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public SocksPage getSocksPage(String color, CottonPercentageFilter filter, String sortField, String sortDirection,
+                                  String after, Integer limit) {
+        int pageSize = limit == null ? queryProperties.getDefaultPageSize() : limit;
+        if (pageSize < 1 || pageSize > queryProperties.getMaxPageSize()) {
+            throw new InvalidPageRequestException(ErrorMessage.INVALID_PAGE_REQUEST.getMsg());
         }
 
-        if (filter == null) {
-            return handleColorFilterOnly(color, sort);
-        }
+        Sort.Order order = getSortOrder(sortField, sortDirection).iterator().next();
+        PageCursor cursor = after == null ? null : PageCursor.decode(after, order);
 
-        if (filter.isRange()) {
-            return handleRangeFilter(color, filter, sort);
+        List<SocksResponse> socks = repository.findPage(buildQuery(color, filter, sortField, sortDirection)
+                .afterKey(cursor == null ? null : cursor.getKey())
+                .afterId(cursor == null ? null : cursor.getId())
+                .limit(pageSize + 1)
+                .build());
+
+        if (socks.size() <= pageSize) {
+            return new SocksPage(socks, null);
         }
+        List<SocksResponse> page = socks.subList(0, pageSize);
+        return new SocksPage(page, PageCursor.of(page.get(pageSize - 1), order).encode());
+    }
 
-        return handleOperatorFilter(color, filter, sort);
+    /**
+     * Validates the sorting parameters of a socks stream and builds its query without touching the database,
+     * so invalid requests are rejected before a streamed response is started.
+     *
+     * @param color          The color of the socks to filter (optional).
+     * @param filter         A CottonPercentageFilter object containing the percentage filter criteria (optional).
+     * @param sortField      The field by which to sort the socks: id, color, cottonPercentage or quantity.
+     * @param sortDirection  The sort direction, either "asc" (ascending) or "desc" (descending).
+     * @return The query to pass to {@link #streamAllSocksSorted(SocksQuery, Consumer)}.
+     * @throws InvalidPageRequestException If the sort field is not supported.
+     * @throws InvalidSortDirectionException If the sort direction is not supported.
+     */
+    @Override
+    public SocksQuery prepareSocksStream(String color, CottonPercentageFilter filter, String sortField,
+                                         String sortDirection) {
+        return buildQuery(color, filter, sortField, sortDirection).build();
+    }
+
+    /**
+     * Passes every socks row matching the query to the consumer in its order, reading the rows from
+     * a database cursor instead of building the whole list in memory. The connection is held for at most
+     * {@code socks.query.stream-timeout}; a stream still running by then, e.g. because the client reads
+     * slowly, is aborted.
+     *
+     * @param query    The query built by {@link #prepareSocksStream(String, CottonPercentageFilter, String, String)}.
+     * @param consumer Receives the socks one at a time.
+     * @throws QueryTimeoutException If the stream takes longer than {@code socks.query.stream-timeout}.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllSocksSorted(SocksQuery query, Consumer<SocksResponse> consumer) {
+        Duration timeout = queryProperties.getStreamTimeout();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try (Stream<SocksResponse> socks = repository.streamAll(query, queryProperties.getStreamFetchSize(), timeout)) {
+            socks.forEach(row -> {
+                if (System.nanoTime() - deadline > 0) {
+                    throw new QueryTimeoutException("Socks stream exceeded " + timeout);
+                }
+                consumer.accept(row);
+            });
+        }
     }
 
     /**
      * Retrieves the total quantity of socks based on filtering parameters: color and/or cotton percentage filter.
+     * Served from the in-memory {@link SocksCountIndex} unless {@code socks.query.count-index-enabled} is false,
+     * plus the incomes still buffered by {@link SocksIncomeBuffer}. Counts read from the balances also include
+     * the pending movements of the {@link StockLedger}.
      *
      * @param color The color of the socks to filter by (optional). Pass null for no filtering by color.
      * @param cottonPercentageFilter Filter criteria for cotton percentage (optional). Pass null for no filtering.
      * @return The total quantity of socks that match the criteria.
      * @throws NoFilterParametersException Thrown when both filter parameters are missing.
      */
+    @Override
     public int getSocksCount(String color, CottonPercentageFilter cottonPercentageFilter) {
-        log.info("Request received to count socks. Parameters: color={}, cottonPercentageFilter={}",
-                color, cottonPercentageFilter);
-
         if((color == null || color.isBlank()) && cottonPercentageFilter == null) {
             throw new NoFilterParametersException("Zero filter parameters");
         }
 
-        if (cottonPercentageFilter == null) {
-            return getSumQuantityByColor(color);
+        if (countIndex.isEnabled()) {
+            int indexedCount = Math.toIntExact(incomeBuffer.countWithPending(color, cottonPercentageFilter,
+                    () -> countIndex.count(color, cottonPercentageFilter)));
+            log.debug("Counted {} socks from index: color={}, cottonPercentageFilter={}",
+                    indexedCount, color, cottonPercentageFilter);
+            return indexedCount;
         }
 
-        return getSumQuantityByCottonPercentage(color, cottonPercentageFilter);
+        // Only the SQL count takes a connection, the index above is answered without a transaction.
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        int count = Math.toIntExact(incomeBuffer.countWithPending(color, cottonPercentageFilter,
+                () -> transaction.execute(status -> repository.sumQuantity(color, cottonPercentageFilter)
+                        + stockLedger.pendingCount(color, cottonPercentageFilter))));
+        log.debug("Counted {} socks: color={}, cottonPercentageFilter={}", count, color, cottonPercentageFilter);
+        return count;
     }
 
-    /**
-     * Counts the total quantity of socks based on a given color.
-     *
-     * @param color The color of the socks to filter by.
-     * @return The total quantity of socks that match the color.
-     */
-    private int getSumQuantityByColor(String color) {
-        if (color == null || color.isBlank()) {
-            log.warn("No color filter provided. Returning 0.");
-            return 0;
-        }
-        int sumByColor = repository.sumQuantityByColor(color).orElse(0);
-        log.info("Counted socks by color '{}'. Found {} socks.", color, sumByColor);
-        return sumByColor;
+    private void audit(String action, SocksRequest socks) {
+        auditLog.recordAfterCommit(action, "color", socks.getColor(), "cottonPercentage", socks.getCottonPercentage(),
+                "quantity", socks.getQuantity());
     }
 
-    /**
-     * Counts the total quantity of socks based on cotton percentage, with filtering by color.
-     *
-     * @param color The color of the socks (optional).
-     * @param cottonPercentageFilter The filter criteria for cotton percentage.
-     * @return The total quantity of socks that match the filter criteria.
-     * @see CottonPercentageFilter
-     */
-    private int getSumQuantityByCottonPercentage(String color, CottonPercentageFilter cottonPercentageFilter) {
-        if (cottonPercentageFilter.isRange()) {
-            log.info("Counted socks by cotton percentage and color - {}. Found {} socks.",
-                    color, getSumQuantityByCottonRange(color, cottonPercentageFilter));
-            return getSumQuantityByCottonRange(color, cottonPercentageFilter);
-        } else {
-            log.info("Count socks by match operator - {} and color - {}. Found {} socks.",
-                    cottonPercentageFilter.getOperator(), color, getSumQuantityByCottonOperator(color, cottonPercentageFilter.getOperator(), cottonPercentageFilter.getMinValue()));
-            return getSumQuantityByCottonOperator(color, cottonPercentageFilter.getOperator(), cottonPercentageFilter.getMinValue());
+    private SocksQuery.SocksQueryBuilder buildQuery(String color, CottonPercentageFilter filter,
+                                                    String sortField, String sortDirection) {
+        Sort.Order order = getSortOrder(sortField, sortDirection).iterator().next();
+        if (!SocksQuery.SORT_FIELDS.contains(order.getProperty())) {
+            throw new InvalidPageRequestException(ErrorMessage.INVALID_PAGE_REQUEST.getMsg());
         }
+        return SocksQuery.builder()
+                .color(color)
+                .filter(filter)
+                .sortField(order.getProperty())
+                .direction(order.getDirection());
     }
 
-    /**
-     * Counts the total quantity of socks in a specific range of cotton percentage, with optional color filtering.
-     *
-     * @param color The color of the socks to filter by (optional).
-     * @param filter The cotton percentage range filter.
-     * @return The total quantity of socks that match the criteria.
-     * @see CottonPercentageFilter
-     */
-    private int getSumQuantityByCottonRange(String color, CottonPercentageFilter filter) {
-        if (color == null) {
-            return repository.sumQuantityByCottonPercentageBetween(filter.getMinValue(), filter.getMaxValue()).orElse(0);
-        }
-        return repository.sumQuantityByColorAndCottonPercentageBetween(color, filter.getMinValue(), filter.getMaxValue()).orElse(0);
-    }
-
-    /**
-     * Counts the total quantity of socks using a comparison operator (> / < / =),
-     * with optional color filtering.
-     *
-     * @param color The color of the socks to filter by (optional).
-     * @param operator The comparison operator.
-     * @param value The cotton percentage value to compare.
-     * @return The total quantity of socks that match the criteria.
-     */
-    private int getSumQuantityByCottonOperator(String color, String operator, int value) {
-        return switch (operator) {
-            case ">" -> (color == null)
-                    ? repository.sumQuantityByCottonPercentageGreaterThan(value).orElse(0)
-                    : repository.sumQuantityByColorAndCottonPercentageGreaterThan(color, value).orElse(0);
-            case "<" -> (color == null)
-                    ? repository.sumQuantityByCottonPercentageLessThan(value).orElse(0)
-                    : repository.sumQuantityByColorAndCottonPercentageLessThan(color, value).orElse(0);
-            case "=" -> (color == null)
-                    ? repository.sumQuantityByCottonPercentage(value).orElse(0)
-                    : repository.sumQuantityByColorAndCottonPercentage(color, value).orElse(0);
-            default -> {
-                log.warn("Unsupported operator: {}", operator);
-                throw new UnsupportedOperatorException(ErrorMessage.UNSUPPORTED_OPERATOR.getMsg());
-            }
-        };
+    private record MovementKey(String color, int cottonPercentage) {
     }
 
     private Sort getSortOrder(String sortField, String sortDirection) {
@@ -230,30 +433,4 @@ public class SocksServiceImpl implements SocksService {
         Sort.Direction direction = "DESC".equalsIgnoreCase(sortDirection) ? Sort.Direction.DESC : Sort.Direction.ASC;
         return Sort.by(direction, sortField);
     }
-
-    private List<Socks> handleColorFilterOnly(String color, Sort sort) {
-        return repository.findByColor(color, sort);
-    }
-
-    private List<Socks> handleRangeFilter(String color, CottonPercentageFilter filter, Sort sort) {
-        if (color != null) {
-            return repository.findByColorAndCottonPercentageBetween(color, filter.getMinValue(), filter.getMaxValue(), sort);
-        }
-        return repository.findByCottonPercentageBetween(filter.getMinValue(), filter.getMaxValue(), sort);
-    }
-
-    private List<Socks> handleOperatorFilter(String color, CottonPercentageFilter filter, Sort sort) {
-        return switch (filter.getOperator()) {
-            case ">" -> color != null
-                    ? repository.findByColorAndCottonPercentageGreaterThan(color, filter.getMinValue(), sort)
-                    : repository.findByCottonPercentageGreaterThan(filter.getMinValue(), sort);
-            case "<" -> color != null
-                    ? repository.findByColorAndCottonPercentageLessThan(color, filter.getMaxValue(), sort)
-                    : repository.findByCottonPercentageLessThan(filter.getMaxValue(), sort);
-            case "=" -> color != null
-                    ? repository.findByColorAndCottonPercentage(color, filter.getMinValue(), sort)
-                    : repository.findByCottonPercentage(filter.getMinValue(), sort);
-            default -> throw new UnsupportedOperatorException(ErrorMessage.UNSUPPORTED_OPERATOR.getMsg());
-        };
-    }
 }
@@ -0,0 +1,10 @@
+package com.javarest.socks.service;
+
+import com.javarest.socks.dto.BatchImportResult;
+
+import java.io.InputStream;
+
+public interface SocksStreamImportService {
+    BatchImportResult importCsv(InputStream inputStream);
+    BatchImportResult importNdjson(InputStream inputStream);
+}
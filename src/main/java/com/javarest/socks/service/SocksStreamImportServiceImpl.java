@@ -0,0 +1,111 @@
+package com.javarest.socks.service;
+
+import com.javarest.socks.config.SocksBatchProperties;
+import com.javarest.socks.dto.BatchImportResult;
+import com.javarest.socks.dto.SocksRequest;
+import com.javarest.socks.exception.constant.ErrorMessage;
+import com.javarest.socks.exception.exceptions.PartialImportException;
+import com.javarest.socks.util.CsvUtils;
+import com.javarest.socks.util.NdjsonUtils;
+import jakarta.validation.Validator;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Imports socks incomes parsed directly from a request body. Rows are never collected into a list:
+ * they are merged into bounded chunks of {@code socks.batch.checkpoint-rows} rows, and every chunk
+ * is committed through {@link SocksService#registerSocksIncomeBatch(SocksIncomeBatch)}. When the stream turns out
+ * to be invalid after a chunk has been committed, a {@link PartialImportException} reports how many leading rows
+ * are already registered.
+ */
+@Service
+@AllArgsConstructor
+@Slf4j
+public class SocksStreamImportServiceImpl implements SocksStreamImportService {
+
+    private final SocksService socksService;
+
+    private final SocksBatchProperties batchProperties;
+
+    private final Validator validator;
+
+    @Override
+    public BatchImportResult importCsv(InputStream inputStream) {
+        return importRows(inputStream, CsvUtils::parseCsv);
+    }
+
+    @Override
+    public BatchImportResult importNdjson(InputStream inputStream) {
+        return importRows(inputStream, NdjsonUtils::parseNdjson);
+    }
+
+    private BatchImportResult importRows(InputStream inputStream,
+                                         BiConsumer<InputStream, Consumer<SocksRequest>> parser) {
+        long startNanos = System.nanoTime();
+        ChunkWriter writer = new ChunkWriter(Math.max(1, batchProperties.getCheckpointRows()));
+
+        try {
+            parser.accept(inputStream, writer);
+            writer.commit();
+        } catch (RuntimeException e) {
+            if (writer.committedRows == 0) {
+                throw e;
+            }
+            throw new PartialImportException(
+                    String.format(ErrorMessage.PARTIAL_IMPORT.getMsg(), writer.committedRows), writer.committedRows, e);
+        }
+
+        BatchImportResult result = new BatchImportResult(writer.rows, writer.failedRows, writer.consignments,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        log.info("Socks stream import: Rows = {}, Failed rows = {}, Elapsed = {} ms, Rows/sec = {}",
+                result.getRows(), result.getFailedRows(), result.getElapsedMillis(), result.getRowsPerSecond());
+        return result;
+    }
+
+    private final class ChunkWriter implements Consumer<SocksRequest> {
+
+        private final int chunkRows;
+
+        private SocksIncomeBatch chunk = new SocksIncomeBatch();
+
+        private long rows;
+
+        private long failedRows;
+
+        private long committedRows;
+
+        private int consignments;
+
+        private ChunkWriter(int chunkRows) {
+            this.chunkRows = chunkRows;
+        }
+
+        @Override
+        public void accept(SocksRequest row) {
+            rows++;
+            if (!validator.validate(row).isEmpty()) {
+                failedRows++;
+                return;
+            }
+            chunk.add(row);
+            if (chunk.getRowCount() >= chunkRows) {
+                commit();
+            }
+        }
+
+        private void commit() {
+            if (chunk.getRowCount() == 0) {
+                return;
+            }
+            consignments += socksService.registerSocksIncomeBatch(chunk).getConsignments();
+            committedRows = rows;
+            chunk = new SocksIncomeBatch();
+        }
+    }
+}
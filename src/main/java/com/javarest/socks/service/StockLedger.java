@@ -0,0 +1,268 @@
+package com.javarest.socks.service;
+
+import com.javarest.socks.config.SocksBatchProperties;
+import com.javarest.socks.config.SocksLedgerProperties;
+import com.javarest.socks.dto.CottonPercentageFilter;
+import com.javarest.socks.dto.SocksRequest;
+import com.javarest.socks.exception.constant.ErrorMessage;
+import com.javarest.socks.exception.exceptions.InsufficientStockException;
+import com.javarest.socks.exception.exceptions.SocksNotFoundException;
+import com.javarest.socks.model.Socks;
+import com.javarest.socks.model.StockMovement;
+import com.javarest.socks.repository.ColorDictionary;
+import com.javarest.socks.repository.SocksRepository;
+import com.javarest.socks.repository.StockMovementRepository;
+import com.javarest.socks.sql.ColorNames;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only stock ledger, enabled by {@code socks.ledger.enabled}. Single incomes and outcomes insert
+ * a row into {@code stock_movements} instead of updating the {@code socks} balance row, so concurrent
+ * movements of one consignment do not wait for each other's row lock. The stock of a consignment is its
+ * balance plus its pending movements; a background compactor folds pending movements into the balances
+ * in batches and keeps them as history.
+ * <p>
+ * Outcomes still lock the balance row, so that two outcomes can not both take the last socks.
+ * Incomes never lock it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockLedger {
+
+    private final StockMovementRepository movementRepository;
+
+    private final SocksRepository repository;
+
+    private final ColorDictionary colorDictionary;
+
+    private final SocksCountIndex countIndex;
+
+    private final SocksLedgerProperties properties;
+
+    private final SocksBatchProperties batchProperties;
+
+    private final PlatformTransactionManager transactionManager;
+
+    private ScheduledExecutorService compactor;
+
+    /**
+     * Folds the movements left by a previous run into the balances, rebuilds the count index from them
+     * and starts the periodic compaction.
+     */
+    @PostConstruct
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        compactAll();
+        countIndex.rebuild();
+
+        long intervalMillis = properties.getCompactionInterval().toMillis();
+        compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "socks-ledger-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        compactor.scheduleWithFixedDelay(this::compactQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (compactor == null) {
+            return;
+        }
+        compactor.shutdown();
+        compactor.awaitTermination(properties.getCompactionInterval().toMillis() + 5000, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public void recordIncome(String color, int cottonPercentage, int quantity) {
+        append(color, cottonPercentage, quantity);
+    }
+
+    /**
+     * Records an outcome if the balance and the pending movements of the consignment cover it.
+     *
+     * @throws SocksNotFoundException     If the consignment has neither a balance row nor pending movements.
+     * @throws InsufficientStockException If fewer socks are in stock than requested.
+     */
+    @Transactional
+    public void recordOutcome(String color, int cottonPercentage, int quantity) {
+        Optional<Socks> balance = lockBalance(color, cottonPercentage);
+        if (balance.isEmpty()) {
+            throw new SocksNotFoundException(ErrorMessage.SOCKS_NOT_FOUND.getMsg());
+        }
+        long stock = balance.get().getQuantity() + movementRepository.sumPending(color, cottonPercentage);
+        if (stock < quantity) {
+            throw new InsufficientStockException(ErrorMessage.INSUFFICIENT_STOCK.getMsg());
+        }
+        append(color, cottonPercentage, -quantity);
+    }
+
+    /**
+     * Locks the balance row of the consignment, creating an empty one if the consignment only exists
+     * in pending movements so far. Callers that write the balance row lock it through here.
+     *
+     * @return The locked balance, or empty if the consignment is unknown.
+     */
+    public Optional<Socks> lockBalance(String color, int cottonPercentage) {
+        if (!colorDictionary.contains(color)) {
+            return Optional.empty();
+        }
+        Optional<Socks> balance = repository.findForUpdate(color, cottonPercentage);
+        if (balance.isPresent() || !isEnabled() || movementRepository.countPending(color, cottonPercentage) == 0) {
+            return balance;
+        }
+        repository.upsertQuantity(color, cottonPercentage, 0);
+        return repository.findForUpdate(color, cottonPercentage);
+    }
+
+    /**
+     * Returns the quantity of the pending movements of a consignment, 0 when the ledger is disabled.
+     */
+    public int pendingQuantity(String color, int cottonPercentage) {
+        if (!isEnabled() || !colorDictionary.contains(color)) {
+            return 0;
+        }
+        return Math.toIntExact(movementRepository.sumPending(color, cottonPercentage));
+    }
+
+    /**
+     * Counts pending movements, so that counts read from the balances can include them.
+     *
+     * @param color  The color of the socks (optional). Pass null to count all colors.
+     * @param filter The cotton percentage filter (optional). Pass null to count all percentages.
+     * @return The quantity of matching pending movements, 0 when the ledger is disabled.
+     */
+    public int pendingCount(String color, CottonPercentageFilter filter) {
+        if (!isEnabled() || (color != null && !colorDictionary.contains(color))) {
+            return 0;
+        }
+        CottonPercentageFilter cottonFilter = filter == null ? CottonPercentageFilter.ANY : filter;
+        long total = 0;
+        // Pending movements are few, as they are compacted every interval; one query per range is cheap.
+        for (int i = 0; i < cottonFilter.rangeCount(); i++) {
+            int minCotton = cottonFilter.lowerBound(i);
+            int maxCotton = cottonFilter.upperBound(i);
+            total += color == null
+                    ? movementRepository.sumPendingInRange(minCotton, maxCotton)
+                    : movementRepository.sumPendingInRange(color, minCotton, maxCotton);
+        }
+        return Math.toIntExact(total);
+    }
+
+    /**
+     * Marks the pending movements of a consignment as compacted without adding them to its balance.
+     * Used before the balance is overwritten with an absolute quantity, which supersedes them.
+     *
+     * @return The quantity of the settled movements.
+     */
+    @Transactional
+    public int settle(String color, int cottonPercentage) {
+        if (!isEnabled()) {
+            return 0;
+        }
+        List<StockMovement> movements = movementRepository.findPendingForUpdate(color, cottonPercentage);
+        if (movements.isEmpty()) {
+            return 0;
+        }
+        movementRepository.markCompacted(movements.stream().map(StockMovement::getId).toList());
+        return movements.stream().mapToInt(StockMovement::getQuantity).sum();
+    }
+
+    /**
+     * Folds one batch of pending movements into the balances in one transaction.
+     *
+     * @return The number of folded movements.
+     * @throws ConcurrencyFailureException If another compaction has folded some of the movements first.
+     */
+    public int compact() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Integer compacted = transaction.execute(status -> {
+            List<StockMovement> movements = movementRepository.findPending(
+                    PageRequest.of(0, Math.max(1, properties.getCompactionBatchSize())));
+            if (movements.isEmpty()) {
+                return 0;
+            }
+            if (movementRepository.markCompacted(movements.stream().map(StockMovement::getId).toList()) != movements.size()) {
+                throw new ConcurrencyFailureException("Stock movements are being compacted concurrently");
+            }
+
+            // Balances are upserted in key order, as income batches are, so that concurrent writers lock rows in the same order.
+            Map<MovementKey, Integer> deltas = new TreeMap<>(MovementKey.ORDER);
+            movements.forEach(movement -> deltas.merge(
+                    new MovementKey(movement.getColor(), movement.getCottonPercentage()), movement.getQuantity(), Math::addExact));
+            List<SocksRequest> balances = new ArrayList<>(deltas.size());
+            deltas.forEach((key, delta) -> balances.add(SocksRequest.builder()
+                    .color(key.color())
+                    .cottonPercentage(key.cottonPercentage())
+                    .quantity(delta)
+                    .build()));
+
+            int chunkSize = Math.max(1, batchProperties.getChunkSize());
+            for (int from = 0; from < balances.size(); from += chunkSize) {
+                repository.upsertQuantities(balances.subList(from, Math.min(from + chunkSize, balances.size())));
+            }
+            return movements.size();
+        });
+        return compacted == null ? 0 : compacted;
+    }
+
+    private void compactAll() {
+        int compacted;
+        long total = 0;
+        do {
+            compacted = compact();
+            total += compacted;
+        } while (compacted >= properties.getCompactionBatchSize());
+        if (total > 0) {
+            log.info("Stock ledger compaction: Movements = {}", total);
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            compactAll();
+        } catch (RuntimeException e) {
+            log.error("Stock movements could not be compacted, retrying with the next compaction.", e);
+        }
+    }
+
+    private void append(String color, int cottonPercentage, int quantity) {
+        movementRepository.save(StockMovement.builder()
+                .color(ColorNames.canonical(color))
+                .cottonPercentage(cottonPercentage)
+                .quantity(quantity)
+                .build());
+        countIndex.applyAfterCommit(color, cottonPercentage, quantity);
+    }
+
+    private record MovementKey(String color, int cottonPercentage) {
+
+        private static final Comparator<MovementKey> ORDER = Comparator.comparing(MovementKey::color)
+                .thenComparingInt(MovementKey::cottonPercentage);
+    }
+}
@@ -0,0 +1,103 @@
+package com.javarest.socks.util;
+
+import com.javarest.socks.dto.SocksRequest;
+import com.javarest.socks.exception.constant.ErrorMessage;
+import com.javarest.socks.exception.exceptions.FileProcessingException;
+import com.javarest.socks.exception.exceptions.InvalidFileFormatException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+public class CsvUtils {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String[] HEADER = {"color", "cottonPercentage", "quantity"};
+
+    /**
+     * Parses comma-separated socks rows ({@code color,cottonPercentage,quantity}) straight from the stream
+     * and passes each row to the consumer as soon as it is read. A first line naming exactly these columns
+     * (in any case) is skipped as the header, blank lines are ignored, and any other line must be a valid row.
+     * Nothing but the current line is kept in memory.
+     *
+     * @param inputStream The CSV content, UTF-8 encoded.
+     * @param consumer    Receives parsed rows one at a time.
+     * @throws InvalidFileFormatException If a line does not contain three fields or holds non-numeric values.
+     * @throws FileProcessingException    If the stream can not be read.
+     */
+    public static void parseCsv(InputStream inputStream, Consumer<SocksRequest> consumer) {
+        try {
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(inputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+            String line;
+            boolean firstLine = true;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (firstLine && isHeader(line)) {
+                    firstLine = false;
+                    continue;
+                }
+                firstLine = false;
+                consumer.accept(parseLine(line));
+            }
+        } catch (IOException e) {
+            throw new FileProcessingException(ErrorMessage.FILE_PROCESSING.getMsg());
+        }
+    }
+
+    private static SocksRequest parseLine(String line) {
+        int first = line.indexOf(',');
+        int second = first < 0 ? -1 : line.indexOf(',', first + 1);
+        if (second < 0 || line.indexOf(',', second + 1) >= 0) {
+            throw new InvalidFileFormatException(ErrorMessage.INVALID_FILE_FORMAT.getMsg());
+        }
+
+        return SocksRequest.builder()
+                .color(unquote(line.substring(0, first)))
+                .cottonPercentage(toInt(line, first + 1, second))
+                .quantity(toInt(line, second + 1, line.length()))
+                .build();
+    }
+
+    private static boolean isHeader(String line) {
+        String[] fields = line.split(",", -1);
+        if (fields.length != HEADER.length) {
+            return false;
+        }
+        for (int i = 0; i < HEADER.length; i++) {
+            if (!HEADER[i].equalsIgnoreCase(unquote(fields[i]))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String unquote(String value) {
+        String trimmed = value.trim();
+        if (trimmed.length() >= 2 && trimmed.charAt(0) == '"' && trimmed.charAt(trimmed.length() - 1) == '"') {
+            return trimmed.substring(1, trimmed.length() - 1);
+        }
+        return trimmed;
+    }
+
+    private static int toInt(String line, int from, int to) {
+        try {
+            return Integer.parseInt(line, from, to, 10);
+        } catch (NumberFormatException e) {
+            try {
+                return Integer.parseInt(unquote(line.substring(from, to)));
+            } catch (NumberFormatException ex) {
+                throw new InvalidFileFormatException(ErrorMessage.INVALID_FILE_FORMAT.getMsg());
+            }
+        }
+    }
+
+    private CsvUtils() {
+    }
+}
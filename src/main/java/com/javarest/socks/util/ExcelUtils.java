@@ -1,44 +1,220 @@
 package com.javarest.socks.util;
 
 import com.javarest.socks.dto.SocksRequest;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import com.javarest.socks.exception.constant.ErrorMessage;
+import com.javarest.socks.exception.exceptions.FileProcessingException;
+import com.javarest.socks.exception.exceptions.InvalidFileFormatException;
+import org.apache.poi.UnsupportedFileFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.NumberToTextConverter;
+import org.apache.poi.util.LocaleUtil;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
 
+import javax.xml.parsers.ParserConfigurationException;
 import java.io.File;
-import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.text.NumberFormat;
+import java.text.ParsePosition;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
 
 public class ExcelUtils {
+
+    private static final int COLOR_COLUMN = 0;
+    private static final int COTTON_PERCENTAGE_COLUMN = 1;
+    private static final int QUANTITY_COLUMN = 2;
+
     public static List<SocksRequest> parseExcelFile(File file) {
         List<SocksRequest> sockList = new ArrayList<>();
+        parseExcelFile(file, sockList::add);
+        return sockList;
+    }
+
+    /**
+     * Parses the first sheet of an .xlsx file with the POI event model and passes every data row
+     * to the given consumer as soon as it is read. Neither the workbook nor the rows are kept
+     * in memory, so memory use does not depend on the file size.
+     * The first row is treated as a header; columns are color, cotton percentage and quantity.
+     *
+     * @param file     The .xlsx file to parse.
+     * @param consumer Receives parsed rows one at a time, in sheet order.
+     * @throws FileProcessingException    If the file can not be read.
+     * @throws InvalidFileFormatException If the file is not a valid workbook, or a data row is incomplete
+     *                                    or holds non-numeric values.
+     */
+    public static void parseExcelFile(File file, Consumer<SocksRequest> consumer) {
+        parseExcelFile(file, consumer, () -> {
+            throw new InvalidFileFormatException(ErrorMessage.INVALID_FILE_FORMAT.getMsg());
+        });
+    }
 
-        try(InputStream fis = new FileInputStream(file);
-            Workbook workbook = new XSSFWorkbook(fis)) {
+    /**
+     * Parses the first sheet like {@link #parseExcelFile(File, Consumer)}, but reports data rows that are
+     * incomplete or hold non-numeric values to {@code malformedRows} and goes on with the next row.
+     *
+     * @param malformedRows Called once for every malformed data row, in sheet order with the parsed rows.
+     * @throws FileProcessingException    If the file can not be read.
+     * @throws InvalidFileFormatException If the file is not a valid workbook.
+     */
+    public static void parseExcelFile(File file, Consumer<SocksRequest> consumer, Runnable malformedRows) {
+        try {
+            OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ);
+            try {
+                parseFirstSheet(pkg, consumer, malformedRows);
+            } finally {
+                pkg.revert();
+            }
+        } catch (OpenXML4JException | UnsupportedFileFormatException | SAXException e) {
+            throw new InvalidFileFormatException(ErrorMessage.INVALID_FILE_FORMAT.getMsg());
+        } catch (IOException | ParserConfigurationException e) {
+            throw new FileProcessingException(ErrorMessage.FILE_PROCESSING.getMsg());
+        }
+    }
+
+    private static void parseFirstSheet(OPCPackage pkg, Consumer<SocksRequest> consumer, Runnable malformedRows)
+            throws IOException, OpenXML4JException, SAXException, ParserConfigurationException {
+        XSSFReader reader = new XSSFReader(pkg);
+        ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(pkg);
+
+        Iterator<InputStream> sheets = reader.getSheetsData();
+        if (!sheets.hasNext()) {
+            return;
+        }
 
-            Sheet sheet = workbook.getSheetAt(0);
-            for(Row row : sheet) {
-                if(row.getRowNum() == 0) {
-                    continue;
+        try (InputStream sheet = sheets.next()) {
+            XMLReader parser = XMLHelper.newXMLReader();
+            RawNumberFormatter formatter = new RawNumberFormatter();
+            parser.setContentHandler(new XSSFSheetXMLHandler(reader.getStylesTable(), null, sharedStrings,
+                    new SocksRowHandler(consumer, malformedRows, LocaleUtil.getUserLocale()), formatter, false));
+            parser.parse(new InputSource(sheet));
+        }
+    }
+
+    /**
+     * Collects the three socks columns of the current row and emits a {@link SocksRequest} when the row ends.
+     */
+    private static final class SocksRowHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final Consumer<SocksRequest> consumer;
+
+        private final Runnable malformedRows;
+
+        /**
+         * Parses numbers stored as text, such as {@code 1,000}, in the locale of the workbook formatter.
+         */
+        private final NumberFormat textNumberFormat;
+
+        private String color;
+        private String cottonPercentage;
+        private String quantity;
+
+        private SocksRowHandler(Consumer<SocksRequest> consumer, Runnable malformedRows, Locale locale) {
+            this.consumer = consumer;
+            this.malformedRows = malformedRows;
+            this.textNumberFormat = NumberFormat.getNumberInstance(locale);
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            color = null;
+            cottonPercentage = null;
+            quantity = null;
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            if (cellReference == null) {
+                return;
+            }
+            switch (columnIndex(cellReference)) {
+                case COLOR_COLUMN -> color = formattedValue;
+                case COTTON_PERCENTAGE_COLUMN -> cottonPercentage = formattedValue;
+                case QUANTITY_COLUMN -> quantity = formattedValue;
+                default -> {
                 }
-                String color = row.getCell(0).getStringCellValue();
-                int cottonPercentage = (int) row.getCell(1).getNumericCellValue();
-                int quantity = (int) row.getCell(2).getNumericCellValue();
+            }
+        }
 
-                sockList.add(SocksRequest.builder()
+        @Override
+        public void endRow(int rowNum) {
+            if (rowNum == 0 || (color == null && cottonPercentage == null && quantity == null)) {
+                return;
+            }
+            if (color == null || cottonPercentage == null || quantity == null) {
+                malformedRows.run();
+                return;
+            }
+
+            SocksRequest row;
+            try {
+                row = SocksRequest.builder()
                         .color(color)
-                        .cottonPercentage(cottonPercentage)
-                        .quantity(quantity)
-                        .build());
+                        .cottonPercentage(toInt(cottonPercentage, textNumberFormat))
+                        .quantity(toInt(quantity, textNumberFormat))
+                        .build();
+            } catch (InvalidFileFormatException e) {
+                malformedRows.run();
+                return;
             }
-            //TODO добавить ошибку
-        } catch (Exception e) {
-            throw new RuntimeException();
+            consumer.accept(row);
+        }
+
+        private static int columnIndex(String cellReference) {
+            int column = 0;
+            for (int i = 0; i < cellReference.length(); i++) {
+                char c = cellReference.charAt(i);
+                if (c < 'A' || c > 'Z') {
+                    break;
+                }
+                column = column * 26 + (c - 'A' + 1);
+            }
+            return column - 1;
+        }
+
+        private static int toInt(String value, NumberFormat textNumberFormat) {
+            try {
+                return (int) Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                ParsePosition position = new ParsePosition(0);
+                Number number = textNumberFormat.parse(value.trim(), position);
+                if (number == null || position.getIndex() != value.trim().length()) {
+                    throw new InvalidFileFormatException(ErrorMessage.INVALID_FILE_FORMAT.getMsg());
+                }
+                return number.intValue();
+            }
+        }
+    }
+
+    /**
+     * Passes the raw value of numeric cells instead of their display text, so cell formats such as
+     * {@code #,##0} or a currency do not change what is parsed.
+     */
+    private static final class RawNumberFormatter extends DataFormatter {
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString) {
+            return NumberToTextConverter.toText(value);
+        }
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString,
+                                            boolean use1904Windowing) {
+            return NumberToTextConverter.toText(value);
         }
-        return sockList;
     }
 
     private ExcelUtils() {
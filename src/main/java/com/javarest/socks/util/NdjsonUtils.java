@@ -0,0 +1,83 @@
+package com.javarest.socks.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.javarest.socks.dto.SocksRequest;
+import com.javarest.socks.exception.constant.ErrorMessage;
+import com.javarest.socks.exception.exceptions.FileProcessingException;
+import com.javarest.socks.exception.exceptions.InvalidFileFormatException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+public class NdjsonUtils {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * Parses newline-delimited JSON socks objects ({@code {"color":"red","cottonPercentage":80,"quantity":50}})
+     * with the Jackson streaming parser and passes each object to the consumer as soon as it is read.
+     * Every object must hold {@code color} as a string and {@code cottonPercentage} and {@code quantity}
+     * as integers; unknown fields are skipped.
+     *
+     * @param inputStream The NDJSON content.
+     * @param consumer    Receives parsed rows one at a time.
+     * @throws InvalidFileFormatException If the content is not a sequence of JSON objects, or an object lacks
+     *                                    a field or holds a value of the wrong type.
+     * @throws FileProcessingException    If the stream can not be read.
+     */
+    public static void parseNdjson(InputStream inputStream, Consumer<SocksRequest> consumer) {
+        try (JsonParser parser = JSON_FACTORY.createParser(inputStream)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new InvalidFileFormatException(ErrorMessage.INVALID_FILE_FORMAT.getMsg());
+                }
+                consumer.accept(parseObject(parser));
+            }
+        } catch (JsonProcessingException e) {
+            throw new InvalidFileFormatException(ErrorMessage.INVALID_FILE_FORMAT.getMsg());
+        } catch (IOException e) {
+            throw new FileProcessingException(ErrorMessage.FILE_PROCESSING.getMsg());
+        }
+    }
+
+    private static SocksRequest parseObject(JsonParser parser) throws IOException {
+        String color = null;
+        Integer cottonPercentage = null;
+        Integer quantity = null;
+        JsonToken token;
+        while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "color" -> color = requireToken(parser, value, JsonToken.VALUE_STRING).getText();
+                case "cottonPercentage" -> cottonPercentage = requireToken(parser, value, JsonToken.VALUE_NUMBER_INT).getIntValue();
+                case "quantity" -> quantity = requireToken(parser, value, JsonToken.VALUE_NUMBER_INT).getIntValue();
+                default -> parser.skipChildren();
+            }
+        }
+        if (token != JsonToken.END_OBJECT || color == null || cottonPercentage == null || quantity == null) {
+            throw new InvalidFileFormatException(ErrorMessage.INVALID_FILE_FORMAT.getMsg());
+        }
+
+        return SocksRequest.builder()
+                .color(color)
+                .cottonPercentage(cottonPercentage)
+                .quantity(quantity)
+                .build();
+    }
+
+    private static JsonParser requireToken(JsonParser parser, JsonToken actual, JsonToken expected) {
+        if (actual != expected) {
+            throw new InvalidFileFormatException(ErrorMessage.INVALID_FILE_FORMAT.getMsg());
+        }
+        return parser;
+    }
+
+    private NdjsonUtils() {
+    }
+}
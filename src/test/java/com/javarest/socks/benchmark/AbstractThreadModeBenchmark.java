@@ -0,0 +1,116 @@
+package com.javarest.socks.benchmark;
+
+import com.javarest.socks.dto.SocksRequest;
+import com.javarest.socks.service.SocksService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Drives {@link #CONCURRENCY} concurrent clients against the count endpoint while every database access
+ * takes {@link SlowDatabaseConfiguration#LATENCY}, then reports throughput and latency percentiles.
+ * Subclasses differ only in the thread mode. Both use a Hikari pool of 400 connections, so the 200 Tomcat
+ * platform threads bound the platform mode, while the virtual mode is bound by the pool and the admission
+ * limit only. Run with {@code ./gradlew benchmark}.
+ */
+abstract class AbstractThreadModeBenchmark {
+
+    static final int CONCURRENCY = 1000;
+
+    static final int REQUESTS_PER_CLIENT = 20;
+
+    static final int WARMUP_REQUESTS_PER_CLIENT = 2;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private SocksService service;
+
+    @BeforeEach
+    void setUp() {
+        service.registerSocksIncome(SocksRequest.builder()
+                .color("red")
+                .cottonPercentage(50)
+                .quantity(100)
+                .build());
+    }
+
+    @Test
+    void measureCountEndpoint() throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        URI uri = URI.create("http://localhost:" + port + "/api/socks?color=red");
+
+        run(client, uri, WARMUP_REQUESTS_PER_CLIENT);
+        long startNanos = System.nanoTime();
+        Result result = run(client, uri, REQUESTS_PER_CLIENT);
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        long[] latencies = result.latencyNanos();
+        Arrays.sort(latencies);
+        System.out.printf("%s: %d requests, %d concurrent, %.0f req/s, p50 %.1f ms, p99 %.1f ms, max %.1f ms, " +
+                        "failed %d%n",
+                mode(), latencies.length, CONCURRENCY,
+                latencies.length / (elapsedNanos / 1e9),
+                percentile(latencies, 0.50), percentile(latencies, 0.99),
+                latencies[latencies.length - 1] / 1e6, result.failed());
+
+        assertEquals(0, result.failed());
+    }
+
+    abstract String mode();
+
+    private static Result run(HttpClient client, URI uri, int requestsPerClient) throws Exception {
+        long[] latencies = new long[CONCURRENCY * requestsPerClient];
+        AtomicInteger failed = new AtomicInteger();
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(CONCURRENCY);
+            for (int c = 0; c < CONCURRENCY; c++) {
+                int offset = c * requestsPerClient;
+                futures.add(clients.submit(() -> {
+                    for (int i = 0; i < requestsPerClient; i++) {
+                        long start = System.nanoTime();
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        latencies[offset + i] = System.nanoTime() - start;
+                        if (response.statusCode() != 200) {
+                            failed.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.MINUTES);
+            }
+        }
+        return new Result(latencies, failed.get());
+    }
+
+    private static double percentile(long[] sortedLatencies, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(index, 0)] / 1e6;
+    }
+
+    private record Result(long[] latencyNanos, int failed) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.javarest.socks.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:platform-benchmark",
+        "spring.datasource.hikari.maximum-pool-size=400",
+        "server.tomcat.threads.max=200",
+        "spring.threads.virtual.enabled=false"
+})
+@ActiveProfiles("test")
+@Import(SlowDatabaseConfiguration.class)
+@Tag("benchmark")
+class PlatformThreadsBenchmark extends AbstractThreadModeBenchmark {
+
+    @Override
+    String mode() {
+        return "Platform threads";
+    }
+}
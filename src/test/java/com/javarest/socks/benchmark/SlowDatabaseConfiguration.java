@@ -0,0 +1,67 @@
+package com.javarest.socks.benchmark;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Simulates a slow database: every connection is held for {@link #LATENCY} longer before it is returned
+ * to the pool, blocking the request thread for that time like a slow query would.
+ */
+@TestConfiguration
+class SlowDatabaseConfiguration {
+
+    static final Duration LATENCY = Duration.ofMillis(20);
+
+    @Bean
+    static BeanPostProcessor slowDatabasePostProcessor() {
+        return new SlowDatabasePostProcessor();
+    }
+
+    private static final class SlowDatabasePostProcessor implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return slow(super.getConnection());
+                }
+            };
+        }
+
+        /**
+         * Applied before the admission limit, so the limit wraps the slow connections.
+         */
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+
+        private static Connection slow(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        if ("close".equals(method.getName())) {
+                            Thread.sleep(LATENCY.toMillis());
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.javarest.socks.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:virtual-benchmark",
+        "spring.datasource.hikari.maximum-pool-size=400",
+        "spring.threads.virtual.enabled=true"
+})
+@ActiveProfiles("test")
+@Import(SlowDatabaseConfiguration.class)
+@Tag("benchmark")
+class VirtualThreadsBenchmark extends AbstractThreadModeBenchmark {
+
+    @Override
+    String mode() {
+        return "Virtual threads";
+    }
+}
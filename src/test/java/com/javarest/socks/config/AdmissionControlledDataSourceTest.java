@@ -0,0 +1,141 @@
+package com.javarest.socks.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AdmissionControlledDataSourceTest {
+
+    @Test
+    @DisplayName("Connections beyond the admission limit are rejected and admitted again once a connection is closed")
+    void shouldRejectConnectionsBeyondLimit() throws Exception {
+        // Arrange
+        AdmissionControlledDataSource dataSource = new AdmissionControlledDataSource(
+                targetDataSource(), 1, 1, Duration.ofMillis(50));
+        Connection held = dataSource.getConnection();
+
+        // Act
+        CompletableFuture<Connection> rejected = CompletableFuture.supplyAsync(() -> connect(dataSource));
+
+        // Assert
+        CompletionException exception = assertThrows(CompletionException.class, rejected::join);
+        assertInstanceOf(SQLTransientConnectionException.class, exception.getCause());
+        held.close();
+        assertEquals(1, dataSource.getAvailablePermits());
+        CompletableFuture.supplyAsync(() -> connect(dataSource)).join().close();
+    }
+
+    @Test
+    @DisplayName("A thread holding a connection opens a second one from the reserve instead of the admission limit")
+    void shouldAdmitNestedConnectionOfSameThread() throws Exception {
+        // Arrange
+        DataSource target = targetDataSource();
+        AdmissionControlledDataSource dataSource = new AdmissionControlledDataSource(target, 1, 1, Duration.ofMillis(50));
+
+        // Act
+        Connection outer = dataSource.getConnection();
+        Connection nested = dataSource.getConnection();
+        nested.close();
+        outer.close();
+        outer.close();
+
+        // Assert
+        assertEquals(1, dataSource.getAvailablePermits());
+        assertEquals(1, dataSource.getAvailableNestedPermits());
+    }
+
+    @Test
+    @DisplayName("Saturating the limit with nested connections never exhausts a pool of limit plus reserve")
+    void shouldNotExhaustPoolWhenSaturatedWithNestedConnections() throws Exception {
+        // Arrange
+        int limit = 3;
+        int reserve = 1;
+        Semaphore pool = new Semaphore(limit + reserve);
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenAnswer(invocation -> {
+            if (!pool.tryAcquire(1, TimeUnit.SECONDS)) {
+                throw new SQLException("pool exhausted");
+            }
+            Connection connection = mock(Connection.class);
+            doAnswer(close -> {
+                pool.release();
+                return null;
+            }).when(connection).close();
+            return connection;
+        });
+        AdmissionControlledDataSource dataSource = new AdmissionControlledDataSource(
+                target, limit, reserve, Duration.ofSeconds(5));
+        ExecutorService threads = Executors.newFixedThreadPool(limit * 4);
+
+        // Act
+        List<Future<?>> requests = new ArrayList<>();
+        for (int i = 0; i < limit * 4; i++) {
+            requests.add(threads.submit(() -> {
+                try (Connection outer = dataSource.getConnection()) {
+                    Thread.sleep(5);
+                    try (Connection nested = dataSource.getConnection()) {
+                        Thread.sleep(5);
+                    }
+                }
+                return null;
+            }));
+        }
+
+        // Assert
+        for (Future<?> request : requests) {
+            request.get(10, TimeUnit.SECONDS);
+        }
+        threads.shutdown();
+        assertEquals(limit, dataSource.getAvailablePermits());
+        assertEquals(reserve, dataSource.getAvailableNestedPermits());
+        assertEquals(limit + reserve, pool.availablePermits());
+    }
+
+    @Test
+    @DisplayName("Permit is returned when the target pool fails to open a connection")
+    void shouldReleasePermitWhenTargetFails() throws Exception {
+        // Arrange
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenThrow(new SQLException("pool exhausted"));
+        AdmissionControlledDataSource dataSource = new AdmissionControlledDataSource(target, 1, 1, Duration.ofMillis(50));
+
+        // Act and assert
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertEquals(1, dataSource.getAvailablePermits());
+        verify(target).getConnection();
+    }
+
+    private static DataSource targetDataSource() throws SQLException {
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        return target;
+    }
+
+    private static Connection connect(DataSource dataSource) {
+        try {
+            return dataSource.getConnection();
+        } catch (SQLException e) {
+            throw new CompletionException(e);
+        }
+    }
+}
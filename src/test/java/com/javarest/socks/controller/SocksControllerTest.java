@@ -4,9 +4,14 @@ import com.javarest.socks.config.WebConfig;
 import com.javarest.socks.dto.CottonPercentageFilter;
 import com.javarest.socks.dto.SocksRequest;
 import com.javarest.socks.exception.GlobalExceptionHandler;
+import com.javarest.socks.exception.constant.ErrorMessage;
 import com.javarest.socks.exception.exceptions.InsufficientStockException;
 import com.javarest.socks.service.SocksService;
 import com.javarest.socks.util.CottonPercentageFilterConverter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -16,20 +21,26 @@ import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 
 @WebMvcTest(SocksController.class)
-@Import({WebConfig.class, CottonPercentageFilterConverter.class, GlobalExceptionHandler.class})
+@Import({WebConfig.class, CottonPercentageFilterConverter.class, GlobalExceptionHandler.class, SimpleMeterRegistry.class})
 @ImportAutoConfiguration(GlobalExceptionHandler.class)
 class SocksControllerTest {
 
@@ -109,4 +120,53 @@ class SocksControllerTest {
                         }
                         """));
     }
+
+    @Test
+    @DisplayName("Should reject the whole Excel batch with 400 when a row holds invalid socks parameters")
+    void shouldRejectBatchWithInvalidRow() throws Exception {
+        // Arrange
+        MockMultipartFile file = workbook(new Object[][]{
+                {"color", "cottonPercentage", "quantity"},
+                {"red", 80, 50},
+                {"blue", 30, -10}
+        });
+
+        // Act & Assert
+        mockMvc.perform(multipart("/api/socks/batch").file(file))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorMsg").value(ErrorMessage.INVALID_SOCKS_PARAMETERS.getMsg()));
+        verify(service, never()).registerSocksIncomeBatch(any());
+    }
+
+    @Test
+    @DisplayName("Should return 415 when the uploaded batch is not an Excel workbook")
+    void shouldRejectBatchThatIsNotWorkbook() throws Exception {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "socks.xlsx", null,
+                "color,cottonPercentage,quantity".getBytes(StandardCharsets.UTF_8));
+
+        // Act & Assert
+        mockMvc.perform(multipart("/api/socks/batch").file(file))
+                .andExpect(status().isUnsupportedMediaType())
+                .andExpect(jsonPath("$.errorMsg").value(ErrorMessage.INVALID_FILE_FORMAT.getMsg()));
+        verify(service, never()).registerSocksIncomeBatch(any());
+    }
+
+    private static MockMultipartFile workbook(Object[][] values) throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = workbook.createSheet();
+            for (int i = 0; i < values.length; i++) {
+                Row row = sheet.createRow(i);
+                for (int j = 0; j < values[i].length; j++) {
+                    if (values[i][j] instanceof Integer number) {
+                        row.createCell(j).setCellValue(number);
+                    } else {
+                        row.createCell(j).setCellValue((String) values[i][j]);
+                    }
+                }
+            }
+            workbook.write(out);
+            return new MockMultipartFile("file", "socks.xlsx", null, out.toByteArray());
+        }
+    }
 }
@@ -0,0 +1,108 @@
+package com.javarest.socks.controller;
+
+import com.javarest.socks.dto.CottonPercentageFilter;
+import com.javarest.socks.dto.SocksRequest;
+import com.javarest.socks.exception.exceptions.InsufficientStockException;
+import com.javarest.socks.model.Socks;
+import com.javarest.socks.repository.SocksRepository;
+import com.javarest.socks.service.SocksCountIndex;
+import com.javarest.socks.service.SocksService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs committed mutations against the count index, which is disabled in the rest of the test profile.
+ * Not transactional on purpose: the index only applies changes once their transaction commits.
+ */
+@SpringBootTest(properties = {
+        "socks.query.count-index-enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:countindex"
+})
+@ActiveProfiles("test")
+class SocksCountIndexIntegrationTest {
+
+    @Autowired
+    private SocksRepository repository;
+
+    @Autowired
+    private SocksService service;
+
+    @Autowired
+    private SocksCountIndex countIndex;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        repository.save(Socks.builder()
+                .color("red")
+                .cottonPercentage(35)
+                .quantity(15)
+                .build());
+        repository.save(Socks.builder()
+                .color("white")
+                .cottonPercentage(60)
+                .quantity(10)
+                .build());
+        countIndex.rebuild();
+    }
+
+    @Test
+    @DisplayName("Count index follows committed incomes, outcomes and updates")
+    void shouldFollowCommittedMutations() {
+        //Arrange
+        Long whiteId = repository.findAll().stream()
+                .filter(socks -> socks.getColor().equals("white"))
+                .findFirst()
+                .orElseThrow()
+                .getId();
+
+        //Act
+        service.registerSocksIncome(socks("red", 35, 5));
+        service.registerSocksIncome(socks("green", 80, 7));
+        service.registerSocksOutcome(socks("red", 35, 8));
+        service.updateSocksById(whiteId, socks("blue", 20, 3));
+
+        //Assert
+        assertTrue(countIndex.isEnabled());
+        assertEquals(12, service.getSocksCount("red", null));
+        assertEquals(7, service.getSocksCount("green", null));
+        assertEquals(0, service.getSocksCount("white", null));
+        assertEquals(3, service.getSocksCount("blue", null));
+        assertEquals(19, service.getSocksCount(null, CottonPercentageFilter.of(">20")));
+        assertIndexMatchesTable();
+    }
+
+    @Test
+    @DisplayName("Count index ignores mutations whose transaction rolls back")
+    void shouldIgnoreRolledBackMutations() {
+        //Act
+        assertThrows(InsufficientStockException.class, () -> service.registerSocksOutcome(socks("red", 35, 16)));
+
+        //Assert
+        assertEquals(15, service.getSocksCount("red", null));
+        assertIndexMatchesTable();
+    }
+
+    private void assertIndexMatchesTable() {
+        for (String filter : new String[]{"<=100", "<35", "35-60", ">=60"}) {
+            CottonPercentageFilter cottonFilter = CottonPercentageFilter.of(filter);
+            assertEquals(repository.sumQuantity(null, cottonFilter), countIndex.count(null, cottonFilter), filter);
+        }
+    }
+
+    private SocksRequest socks(String color, int cottonPercentage, int quantity) {
+        return SocksRequest.builder()
+                .color(color)
+                .cottonPercentage(cottonPercentage)
+                .quantity(quantity)
+                .build();
+    }
+}
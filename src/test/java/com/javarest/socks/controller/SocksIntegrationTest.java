@@ -1,24 +1,47 @@
 package com.javarest.socks.controller;
 
 import com.javarest.socks.dto.CottonPercentageFilter;
+import com.javarest.socks.dto.MovementType;
+import com.javarest.socks.dto.SocksMovement;
+import com.javarest.socks.dto.SocksMovementResult;
+import com.javarest.socks.dto.SocksMovementsResult;
+import com.javarest.socks.dto.SocksPage;
 import com.javarest.socks.dto.SocksRequest;
+import com.javarest.socks.dto.SocksResponse;
+import com.javarest.socks.exception.constant.ErrorMessage;
+import com.javarest.socks.exception.exceptions.InsufficientStockException;
 import com.javarest.socks.model.Socks;
+import com.javarest.socks.repository.ColorDictionary;
 import com.javarest.socks.repository.SocksRepository;
+import com.javarest.socks.service.SocksIncomeBatch;
 import com.javarest.socks.service.SocksService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
+@AutoConfigureMockMvc
 @ActiveProfiles("test")
 @Transactional
 class SocksIntegrationTest {
@@ -29,6 +52,15 @@ class SocksIntegrationTest {
     @Autowired
     private SocksService service;
 
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ColorDictionary colorDictionary;
+
+    @Autowired
+    private DataSource dataSource;
+
     @BeforeEach
     void setUp() {
         repository.save(Socks.builder()
@@ -72,7 +104,7 @@ class SocksIntegrationTest {
     @DisplayName("Should sort socks by color in descending order")
     void shouldSortSocksByColorDescending() {
         // Act
-        List<Socks> result = service.getAllSocksSorted(null, null, "color", "DESC");
+        List<SocksResponse> result = service.getAllSocksSorted(null, null, "color", "DESC");
 
         // Assert
         assertEquals(3, result.size());
@@ -94,6 +126,36 @@ class SocksIntegrationTest {
         assertEquals(expectedQuantity, actualQuantity);
     }
 
+    @Test
+    @DisplayName("Less-than filter is applied the same way to listing and counting")
+    void shouldApplyLessThanFilterToListAndCount() {
+        // Arrange
+        CottonPercentageFilter filter = new CottonPercentageFilter("<60");
+
+        // Act
+        List<SocksResponse> socks = service.getAllSocksSorted(null, filter, "cottonPercentage", "ASC");
+        int count = service.getSocksCount(null, filter);
+
+        // Assert
+        assertEquals(List.of("yellow", "red"), socks.stream().map(SocksResponse::getColor).toList());
+        assertEquals(58, count);
+    }
+
+    @Test
+    @DisplayName("Compound filters are applied in one query to listing and counting")
+    void shouldApplyCompoundFilterToListAndCount() {
+        // Arrange
+        CottonPercentageFilter filter = new CottonPercentageFilter("<=20|>=60,!=70");
+
+        // Act
+        List<SocksResponse> socks = service.getAllSocksSorted(null, filter, "cottonPercentage", "ASC");
+        int count = service.getSocksCount(null, filter);
+
+        // Assert
+        assertEquals(List.of("yellow", "white"), socks.stream().map(SocksResponse::getColor).toList());
+        assertEquals(53, count);
+    }
+
     @Test
     @DisplayName("Socks can be updated by id")
     void shouldUpdateSocksById() {
@@ -113,4 +175,162 @@ class SocksIntegrationTest {
         assertNotNull(actualSocks);
         assertEquals(expectedColor, actualSocks.getColor());
     }
+
+    @Test
+    @DisplayName("Income is added to existing socks and creates missing ones")
+    void shouldUpsertSocksOnIncome() {
+        //Arrange
+        SocksRequest existingSocksIncome = SocksRequest.builder()
+                .color("red")
+                .cottonPercentage(35)
+                .quantity(5)
+                .build();
+        SocksRequest newSocksIncome = SocksRequest.builder()
+                .color("green")
+                .cottonPercentage(35)
+                .quantity(7)
+                .build();
+
+        //Act
+        service.registerSocksIncome(existingSocksIncome);
+        service.registerSocksIncome(newSocksIncome);
+
+        //Assert
+        assertEquals(20, service.getSocksCount("red", null));
+        assertEquals(7, service.getSocksCount("green", null));
+        assertEquals(4, repository.count());
+    }
+
+    @Test
+    @DisplayName("Differently cased spellings of a color share one consignment")
+    void shouldMergeColorSpellings() {
+        //Arrange
+        SocksRequest income = SocksRequest.builder()
+                .color(" Red ")
+                .cottonPercentage(35)
+                .quantity(5)
+                .build();
+
+        //Act
+        service.registerSocksIncome(income);
+
+        //Assert
+        assertEquals(20, service.getSocksCount("RED", null));
+        assertEquals(3, repository.count());
+    }
+
+    @Test
+    @DisplayName("Outcome decreases stock and never drives it negative")
+    void shouldDecreaseStockOnOutcome() {
+        //Arrange
+        SocksRequest outcome = SocksRequest.builder()
+                .color("white")
+                .cottonPercentage(60)
+                .quantity(6)
+                .build();
+
+        //Act
+        service.registerSocksOutcome(outcome);
+
+        //Assert
+        assertEquals(4, service.getSocksCount("white", null));
+        assertThrows(InsufficientStockException.class, () -> service.registerSocksOutcome(outcome));
+        assertEquals(4, service.getSocksCount("white", null));
+    }
+
+    @Test
+    @DisplayName("Bulk movements are applied per consignment in request order")
+    void shouldRegisterBulkMovements() {
+        //Arrange
+        List<SocksMovement> movements = List.of(
+                SocksMovement.builder().type(MovementType.OUTCOME).color("white").cottonPercentage(60).quantity(10).build(),
+                SocksMovement.builder().type(MovementType.INCOME).color("green").cottonPercentage(35).quantity(7).build(),
+                SocksMovement.builder().type(MovementType.INCOME).color("white").cottonPercentage(60).quantity(4).build(),
+                SocksMovement.builder().type(MovementType.OUTCOME).color("green").cottonPercentage(35).quantity(2).build());
+
+        //Act
+        SocksMovementsResult result = service.registerSocksMovements(movements);
+
+        //Assert
+        assertEquals(List.of(0, 7, 4, 5), result.getResults().stream().map(SocksMovementResult::getStockAfter).toList());
+        assertEquals(4, service.getSocksCount("white", null));
+        assertEquals(5, service.getSocksCount("green", null));
+    }
+
+    @Test
+    @DisplayName("Batch income is merged and added to existing socks")
+    void shouldRegisterBatchIncome() {
+        //Arrange
+        SocksIncomeBatch batch = new SocksIncomeBatch();
+        batch.add(SocksRequest.builder().color("red").cottonPercentage(35).quantity(5).build());
+        batch.add(SocksRequest.builder().color("red").cottonPercentage(35).quantity(10).build());
+        batch.add(SocksRequest.builder().color("black").cottonPercentage(90).quantity(3).build());
+
+        //Act
+        service.registerSocksIncomeBatch(batch);
+
+        //Assert
+        assertEquals(30, service.getSocksCount("red", null));
+        assertEquals(3, service.getSocksCount("black", null));
+    }
+
+    @Test
+    @DisplayName("Socks can be paged through with a keyset cursor")
+    void shouldPageSocksWithCursor() {
+        //Act
+        SocksPage firstPage = service.getSocksPage(null, null, "quantity", "DESC", null, 2);
+        SocksPage secondPage = service.getSocksPage(null, null, "quantity", "DESC", firstPage.getNextCursor(), 2);
+
+        //Assert
+        assertEquals(2, firstPage.getItems().size());
+        assertEquals("yellow", firstPage.getItems().get(0).getColor());
+        assertEquals("red", firstPage.getItems().get(1).getColor());
+        assertNotNull(firstPage.getNextCursor());
+        assertEquals(1, secondPage.getItems().size());
+        assertEquals("white", secondPage.getItems().get(0).getColor());
+        assertNull(secondPage.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Socks can be streamed one by one in the requested order")
+    void shouldStreamSocksInOrder() {
+        //Arrange
+        List<String> colors = new ArrayList<>();
+
+        //Act
+        service.streamAllSocksSorted(
+                service.prepareSocksStream(null, new CottonPercentageFilter(">20"), "cottonPercentage", "ASC"),
+                socks -> colors.add(socks.getColor()));
+
+        //Assert
+        assertEquals(List.of("red", "white"), colors);
+    }
+
+    @Test
+    @DisplayName("Streaming with an unsupported sort field is rejected before the response starts")
+    void shouldRejectInvalidSortFieldBeforeStreaming() throws Exception {
+        //Act and assert
+        mockMvc.perform(get("/api/socks/all")
+                        .param("stream", "true")
+                        .param("sortBy", "warehouse"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorMsg").value(ErrorMessage.INVALID_PAGE_REQUEST.getMsg()));
+    }
+
+    @Test
+    @DisplayName("New colors are added to the dictionary inside the calling transaction")
+    void shouldInternColorsInCallingTransaction() throws Exception {
+        //Act
+        int id = colorDictionary.intern("Teal");
+
+        //Assert
+        assertEquals(id, colorDictionary.intern("teal"));
+        assertEquals("teal", colorDictionary.nameOf(id));
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT COUNT(*) FROM colors WHERE name = 'teal'");
+             ResultSet result = statement.executeQuery()) {
+            result.next();
+            assertEquals(0, result.getInt(1));
+        }
+    }
 }
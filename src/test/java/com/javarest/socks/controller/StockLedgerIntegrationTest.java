@@ -0,0 +1,113 @@
+package com.javarest.socks.controller;
+
+import com.javarest.socks.dto.SocksRequest;
+import com.javarest.socks.exception.exceptions.InsufficientStockException;
+import com.javarest.socks.model.Socks;
+import com.javarest.socks.repository.SocksRepository;
+import com.javarest.socks.repository.StockMovementRepository;
+import com.javarest.socks.service.SocksService;
+import com.javarest.socks.service.StockLedger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs incomes and outcomes through the stock ledger, which is disabled in the rest of the test profile.
+ * Not transactional on purpose: the compactor folds committed movements in its own transaction.
+ * The compaction interval is long enough that only the explicit compactions of the tests run.
+ */
+@SpringBootTest(properties = {
+        "socks.ledger.enabled=true",
+        "socks.ledger.compaction-interval=1h",
+        "spring.datasource.url=jdbc:h2:mem:ledger"
+})
+@ActiveProfiles("test")
+class StockLedgerIntegrationTest {
+
+    @Autowired
+    private SocksRepository repository;
+
+    @Autowired
+    private StockMovementRepository movementRepository;
+
+    @Autowired
+    private SocksService service;
+
+    @Autowired
+    private StockLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        movementRepository.deleteAll();
+        repository.deleteAll();
+        repository.save(Socks.builder()
+                .color("red")
+                .cottonPercentage(35)
+                .quantity(5)
+                .build());
+    }
+
+    @Test
+    @DisplayName("Outcomes are covered by pending incomes, and compaction folds them into the balance")
+    void shouldAccountPendingIncomesAndCompact() {
+        //Act
+        service.registerSocksIncome(socks("red", 35, 10));
+        int countAfterIncome = service.getSocksCount("red", null);
+        service.registerSocksOutcome(socks("red", 35, 12));
+        int countAfterOutcome = service.getSocksCount("red", null);
+
+        //Assert
+        assertTrue(ledger.isEnabled());
+        assertEquals(15, countAfterIncome);
+        assertEquals(3, countAfterOutcome);
+        assertEquals(5, balance("red", 35));
+        assertThrows(InsufficientStockException.class,
+                () -> service.registerSocksOutcome(socks("red", 35, 4)));
+
+        //Act
+        int compacted = ledger.compact();
+
+        //Assert
+        assertEquals(2, compacted);
+        assertEquals(3, balance("red", 35));
+        assertEquals(0, movementRepository.countPending("red", 35));
+        assertEquals(3, service.getSocksCount("red", null));
+    }
+
+    @Test
+    @DisplayName("Consignments that only exist as pending incomes get a balance row on compaction")
+    void shouldCreateBalanceOnCompaction() {
+        //Act
+        service.registerSocksIncome(socks("green", 80, 7));
+        service.registerSocksOutcome(socks("green", 80, 2));
+        ledger.compact();
+
+        //Assert
+        assertEquals(5, balance("green", 80));
+        assertEquals(0, movementRepository.countPending("green", 80));
+        assertEquals(5, service.getSocksCount("green", null));
+    }
+
+    private int balance(String color, int cottonPercentage) {
+        return repository.findAll().stream()
+                .filter(socks -> socks.getColor().equals(color) && socks.getCottonPercentage() == cottonPercentage)
+                .findFirst()
+                .orElseThrow()
+                .getQuantity();
+    }
+
+    private static SocksRequest socks(String color, int cottonPercentage, int quantity) {
+        return SocksRequest.builder()
+                .color(color)
+                .cottonPercentage(cottonPercentage)
+                .quantity(quantity)
+                .build();
+    }
+}
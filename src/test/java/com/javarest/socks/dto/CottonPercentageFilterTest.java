@@ -0,0 +1,77 @@
+package com.javarest.socks.dto;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CottonPercentageFilterTest {
+
+    @Test
+    @DisplayName("Conjunction of bounds compiles to one range rendered as one SQL condition")
+    void shouldCompileConjunctionToSingleRange() {
+        // Act
+        CottonPercentageFilter filter = new CottonPercentageFilter(">=30, <=70");
+
+        // Assert
+        assertEquals("expression", filter.getOperator());
+        assertEquals(1, filter.rangeCount());
+        assertEquals("(s.cottonPercentage BETWEEN :minCotton0 AND :maxCotton0)", filter.toSql("s.cottonPercentage"));
+        assertEquals(Map.of("minCotton0", 30, "maxCotton0", 70), filter.getSqlParameters());
+    }
+
+    @Test
+    @DisplayName("Disjunctions and not-equal are evaluated the same in memory and as ranges")
+    void shouldEvaluateDisjunctionInMemoryAndAsRanges() {
+        // Arrange
+        CottonPercentageFilter filter = new CottonPercentageFilter("10-20|80-100,!=90");
+
+        // Act and assert
+        assertEquals(3, filter.rangeCount());
+        for (int cotton = -10; cotton <= 110; cotton++) {
+            boolean inRanges = false;
+            for (int i = 0; i < filter.rangeCount(); i++) {
+                inRanges |= cotton >= filter.lowerBound(i) && cotton <= filter.upperBound(i);
+            }
+            boolean expected = (cotton >= 10 && cotton <= 20) || (cotton >= 80 && cotton <= 100 && cotton != 90);
+            assertEquals(expected, filter.test(cotton), "test(" + cotton + ")");
+            assertEquals(expected, inRanges, "ranges contain " + cotton);
+        }
+    }
+
+    @Test
+    @DisplayName("Negative bounds are parsed as numbers, and contradictions match nothing")
+    void shouldParseNegativeBoundsAndContradictions() {
+        // Act
+        CottonPercentageFilter negative = new CottonPercentageFilter(">-5");
+        CottonPercentageFilter contradiction = new CottonPercentageFilter(">70,<30");
+
+        // Assert
+        assertEquals(">", negative.getOperator());
+        assertEquals(-5, negative.getMinValue());
+        assertTrue(negative.test(-4));
+        assertFalse(negative.test(-5));
+        assertTrue(contradiction.matchesNothing());
+    }
+
+    @Test
+    @DisplayName("Malformed expressions are rejected")
+    void shouldRejectMalformedExpressions() {
+        // Act and assert
+        assertThrows(IllegalArgumentException.class, () -> new CottonPercentageFilter("50"));
+        assertThrows(IllegalArgumentException.class, () -> new CottonPercentageFilter(">"));
+        assertThrows(IllegalArgumentException.class, () -> new CottonPercentageFilter("70-30"));
+        assertThrows(IllegalArgumentException.class, () -> new CottonPercentageFilter(">30,"));
+        assertThrows(IllegalArgumentException.class, () -> new CottonPercentageFilter("!50"));
+        assertThrows(IllegalArgumentException.class, () -> new CottonPercentageFilter(">99999999999"));
+    }
+
+    @Test
+    @DisplayName("Repeated expressions reuse the compiled filter")
+    void shouldReuseCompiledFilter() {
+        // Act and assert
+        assertSame(CottonPercentageFilter.of("<=20|>=60"), CottonPercentageFilter.of("<=20|>=60"));
+    }
+}
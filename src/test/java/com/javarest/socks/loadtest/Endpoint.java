@@ -0,0 +1,49 @@
+package com.javarest.socks.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+
+/**
+ * Endpoints driven by the load test, each building a request for a given consignment.
+ */
+enum Endpoint {
+
+    INCOME {
+        @Override
+        HttpRequest request(URI base, String color, int cottonPercentage) {
+            return post(base.resolve("/api/socks/income"), color, cottonPercentage);
+        }
+    },
+    OUTCOME {
+        @Override
+        HttpRequest request(URI base, String color, int cottonPercentage) {
+            return post(base.resolve("/api/socks/outcome"), color, cottonPercentage);
+        }
+    },
+    COUNT {
+        @Override
+        HttpRequest request(URI base, String color, int cottonPercentage) {
+            return HttpRequest.newBuilder(base.resolve("/api/socks?color=" + color + "&cottonPercentage=30-70"))
+                    .GET()
+                    .build();
+        }
+    },
+    LIST {
+        @Override
+        HttpRequest request(URI base, String color, int cottonPercentage) {
+            return HttpRequest.newBuilder(base.resolve("/api/socks/all?color=" + color + "&sortBy=quantity&limit=50"))
+                    .GET()
+                    .build();
+        }
+    };
+
+    abstract HttpRequest request(URI base, String color, int cottonPercentage);
+
+    private static HttpRequest post(URI uri, String color, int cottonPercentage) {
+        String body = "{\"color\":\"" + color + "\",\"cottonPercentage\":" + cottonPercentage + ",\"quantity\":1}";
+        return HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
@@ -0,0 +1,55 @@
+package com.javarest.socks.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Load test parameters, read from {@code loadtest.*} system properties. The {@code loadTest} Gradle task
+ * forwards {@code -Ploadtest.*} project properties, e.g. {@code ./gradlew loadTest -Ploadtest.model=open -Ploadtest.rate=5000}.
+ *
+ * @param model        {@code closed}: {@code clients} clients send their next request as soon as the previous one
+ *                     completes; {@code open}: requests arrive at {@code rate} per second whatever the response times.
+ * @param clients      Number of concurrent clients of the closed model.
+ * @param rate         Requests per second of the open model.
+ * @param warmup       Load duration before measuring.
+ * @param duration     Measured load duration.
+ * @param consignments Number of consignments the traffic is spread over.
+ * @param mix          Relative weight of every endpoint, e.g. {@code income:20,outcome:10,count:50,list:20}.
+ */
+record LoadTestSettings(Model model, int clients, int rate, Duration warmup, Duration duration, int consignments,
+                        Map<Endpoint, Integer> mix) {
+
+    enum Model {
+        CLOSED, OPEN
+    }
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Model.valueOf(System.getProperty("loadtest.model", "closed").toUpperCase()),
+                Integer.getInteger("loadtest.clients", 64),
+                Integer.getInteger("loadtest.rate", 2000),
+                Duration.ofSeconds(Integer.getInteger("loadtest.warmup-seconds", 5)),
+                Duration.ofSeconds(Integer.getInteger("loadtest.duration-seconds", 30)),
+                Integer.getInteger("loadtest.consignments", 64),
+                parseMix(System.getProperty("loadtest.mix", "income:20,outcome:10,count:50,list:20")));
+    }
+
+    private static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid loadtest.mix entry '" + entry + "', expected endpoint:weight");
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Endpoint.valueOf(parts[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix has no endpoint with a positive weight");
+        }
+        return weights;
+    }
+}
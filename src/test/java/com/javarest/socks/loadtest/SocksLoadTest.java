@@ -0,0 +1,193 @@
+package com.javarest.socks.loadtest;
+
+import com.javarest.socks.dto.SocksRequest;
+import com.javarest.socks.service.SocksService;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Drives a configurable mix of income, outcome, count and list traffic against the application running on the
+ * {@code test} profile, then reports throughput and latency percentiles per endpoint. See {@link LoadTestSettings}
+ * for the parameters. Run with {@code ./gradlew loadTest}.
+ * <p>
+ * In the open model the latency of a request is measured from the time it was scheduled to be sent, so a stalled
+ * server shows up in the percentiles instead of silently lowering the request rate.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:load-test",
+        "logging.level.com.javarest.socks=warn"
+})
+@ActiveProfiles("test")
+@Tag("loadtest")
+class SocksLoadTest {
+
+    private static final String[] COLORS = {"red", "white", "black", "blue", "green", "yellow", "grey", "violet"};
+
+    private static final int INITIAL_STOCK = 1_000_000_000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private SocksService service;
+
+    private final LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    private Endpoint[] weightedEndpoints;
+
+    @Test
+    void measureTrafficMix() throws Exception {
+        seedConsignments();
+        weightedEndpoints = settings.mix().entrySet().stream()
+                .flatMap(entry -> Stream.generate(entry::getKey).limit(entry.getValue()))
+                .toArray(Endpoint[]::new);
+
+        run(settings.warmup().toNanos());
+        Stats stats = run(settings.duration().toNanos());
+
+        report(stats);
+    }
+
+    private void seedConsignments() {
+        for (int i = 0; i < settings.consignments(); i++) {
+            service.registerSocksIncome(SocksRequest.builder()
+                    .color(color(i))
+                    .cottonPercentage(cottonPercentage(i))
+                    .quantity(INITIAL_STOCK)
+                    .build());
+        }
+    }
+
+    private Stats run(long durationNanos) throws InterruptedException {
+        Stats stats = new Stats();
+        long start = System.nanoTime();
+        long deadline = start + durationNanos;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            if (settings.model() == LoadTestSettings.Model.CLOSED) {
+                for (int c = 0; c < settings.clients(); c++) {
+                    executor.submit(() -> {
+                        while (System.nanoTime() < deadline) {
+                            send(stats, System.nanoTime());
+                        }
+                    });
+                }
+            } else {
+                long interval = TimeUnit.SECONDS.toNanos(1) / settings.rate();
+                for (long intended = start; intended < deadline; intended += interval) {
+                    long wait = intended - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    long scheduledAt = intended;
+                    executor.submit(() -> send(stats, scheduledAt));
+                }
+            }
+            executor.shutdown();
+            if (!executor.awaitTermination(5, TimeUnit.MINUTES)) {
+                throw new IllegalStateException("Load test requests did not complete within 5 minutes");
+            }
+        }
+        stats.elapsedNanos = System.nanoTime() - start;
+        return stats;
+    }
+
+    private void send(Stats stats, long startNanos) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Endpoint endpoint = weightedEndpoints[random.nextInt(weightedEndpoints.length)];
+        int consignment = random.nextInt(settings.consignments());
+        boolean ok;
+        try {
+            HttpResponse<Void> response = client.send(
+                    endpoint.request(URI.create("http://localhost:" + port), color(consignment),
+                            cottonPercentage(consignment)),
+                    HttpResponse.BodyHandlers.discarding());
+            ok = response.statusCode() == 200;
+        } catch (Exception e) {
+            ok = false;
+        }
+        stats.record(endpoint, System.nanoTime() - startNanos, ok);
+    }
+
+    private void report(Stats stats) {
+        double seconds = stats.elapsedNanos / 1e9;
+        System.out.printf("Load test: %s model, %s, %d consignments, %.1f s%n", settings.model(),
+                settings.model() == LoadTestSettings.Model.CLOSED
+                        ? settings.clients() + " clients" : settings.rate() + " req/s offered",
+                settings.consignments(), seconds);
+        System.out.printf("%-8s %10s %10s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "p999 ms", "failed");
+        Histogram total = new Histogram(3);
+        long failed = 0;
+        for (Map.Entry<Endpoint, ConcurrentHistogram> entry : stats.latencies.entrySet()) {
+            Histogram histogram = entry.getValue();
+            long endpointFailed = stats.failures.get(entry.getKey()).get();
+            printRow(entry.getKey().name().toLowerCase(), histogram, seconds, endpointFailed);
+            total.add(histogram);
+            failed += endpointFailed;
+        }
+        printRow("total", total, seconds, failed);
+    }
+
+    private static void printRow(String name, Histogram histogram, double seconds, long failed) {
+        System.out.printf("%-8s %10d %10.0f %10.2f %10.2f %10.2f %10d%n",
+                name, histogram.getTotalCount(), histogram.getTotalCount() / seconds,
+                histogram.getValueAtPercentile(50) / 1e6,
+                histogram.getValueAtPercentile(99) / 1e6,
+                histogram.getValueAtPercentile(99.9) / 1e6,
+                failed);
+    }
+
+    private static String color(int consignment) {
+        return COLORS[consignment % COLORS.length];
+    }
+
+    private int cottonPercentage(int consignment) {
+        return consignment * 100 / settings.consignments();
+    }
+
+    private final class Stats {
+
+        private final Map<Endpoint, ConcurrentHistogram> latencies = new EnumMap<>(Endpoint.class);
+
+        private final Map<Endpoint, AtomicLong> failures = new EnumMap<>(Endpoint.class);
+
+        private long elapsedNanos;
+
+        private Stats() {
+            for (Endpoint endpoint : settings.mix().keySet()) {
+                latencies.put(endpoint, new ConcurrentHistogram(3));
+                failures.put(endpoint, new AtomicLong());
+            }
+        }
+
+        private void record(Endpoint endpoint, long latencyNanos, boolean ok) {
+            latencies.get(endpoint).recordValue(latencyNanos);
+            if (!ok) {
+                failures.get(endpoint).incrementAndGet();
+            }
+        }
+    }
+}
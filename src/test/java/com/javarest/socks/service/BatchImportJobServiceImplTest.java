@@ -0,0 +1,151 @@
+package com.javarest.socks.service;
+
+import com.javarest.socks.config.SocksBatchProperties;
+import com.javarest.socks.dto.BatchJobState;
+import com.javarest.socks.dto.BatchJobStatus;
+import com.javarest.socks.exception.exceptions.BatchJobNotResumableException;
+import jakarta.validation.Validation;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchImportJobServiceImplTest {
+
+    @Mock
+    private SocksService socksService;
+
+    @Mock
+    private ThreadPoolTaskExecutor executor;
+
+    private BatchImportJobServiceImpl jobService;
+
+    @BeforeEach
+    void setUp() {
+        SocksBatchProperties properties = new SocksBatchProperties();
+        properties.setCheckpointRows(2);
+        jobService = new BatchImportJobServiceImpl(socksService, properties, executor,
+                Validation.buildDefaultValidatorFactory().getValidator());
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(executor).execute(any(Runnable.class));
+    }
+
+    @Test
+    @DisplayName("Batch job commits rows in checkpoints and counts invalid rows as failed")
+    void shouldProcessJobInCheckpoints() throws IOException {
+        // Act
+        BatchJobStatus status = jobService.submit(workbook());
+
+        // Assert
+        assertEquals(BatchJobState.COMPLETED, status.getState());
+        assertEquals(3, status.getRowsProcessed());
+        assertEquals(1, status.getRowsFailed());
+        verify(socksService, times(2)).registerSocksIncomeBatch(any(SocksIncomeBatch.class));
+    }
+
+    @Test
+    @DisplayName("Failed batch job resumes after the last committed checkpoint")
+    void shouldResumeFailedJobFromCheckpoint() throws IOException {
+        // Arrange
+        when(socksService.registerSocksIncomeBatch(any(SocksIncomeBatch.class)))
+                .thenReturn(null)
+                .thenThrow(new IllegalStateException("Database is unavailable"))
+                .thenReturn(null);
+
+        // Act
+        BatchJobStatus failed = jobService.submit(workbook());
+        BatchJobStatus resumed = jobService.resume(failed.getJobId());
+
+        // Assert
+        assertEquals(BatchJobState.FAILED, failed.getState());
+        assertEquals(2, failed.getRowsProcessed());
+        assertEquals(BatchJobState.COMPLETED, resumed.getState());
+        assertEquals(3, resumed.getRowsProcessed());
+        verify(socksService, times(3)).registerSocksIncomeBatch(any(SocksIncomeBatch.class));
+    }
+
+    @Test
+    @DisplayName("Throwing exception when resuming a job that has not failed")
+    void shouldNotResumeCompletedJob() throws IOException {
+        // Arrange
+        BatchJobStatus status = jobService.submit(workbook());
+
+        // Act and assert
+        assertThrows(BatchJobNotResumableException.class, () -> jobService.resume(status.getJobId()));
+    }
+
+    @Test
+    @DisplayName("Batch job counts malformed rows as failed and imports the rest")
+    void shouldSkipMalformedRows() throws IOException {
+        // Act
+        BatchJobStatus status = jobService.submit(workbook(new Object[][]{
+                {"color", "cottonPercentage", "quantity"},
+                {"red", 80, 50},
+                {"blue", 30, "ten"},
+                {"green", 30, 20}
+        }));
+
+        // Assert
+        assertEquals(BatchJobState.COMPLETED, status.getState());
+        assertEquals(3, status.getRowsProcessed());
+        assertEquals(1, status.getRowsFailed());
+        verify(socksService, times(2)).registerSocksIncomeBatch(any(SocksIncomeBatch.class));
+    }
+
+    @Test
+    @DisplayName("Throwing exception when resuming a job whose file is not a workbook")
+    void shouldNotResumeJobWithInvalidFile() {
+        // Arrange
+        BatchJobStatus status = jobService.submit(
+                new MockMultipartFile("file", "socks.xlsx", null, "not a workbook".getBytes()));
+
+        // Act and assert
+        assertEquals(BatchJobState.FAILED, status.getState());
+        assertThrows(BatchJobNotResumableException.class, () -> jobService.resume(status.getJobId()));
+        verifyNoInteractions(socksService);
+    }
+
+    private MockMultipartFile workbook() throws IOException {
+        return workbook(new Object[][]{
+                {"color", "cottonPercentage", "quantity"},
+                {"red", 80, 50},
+                {"blue", 150, 10},
+                {"green", 30, 20}
+        });
+    }
+
+    private MockMultipartFile workbook(Object[][] values) throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = workbook.createSheet();
+            for (int i = 0; i < values.length; i++) {
+                Row row = sheet.createRow(i);
+                for (int j = 0; j < values[i].length; j++) {
+                    if (values[i][j] instanceof Integer number) {
+                        row.createCell(j).setCellValue(number);
+                    } else {
+                        row.createCell(j).setCellValue((String) values[i][j]);
+                    }
+                }
+            }
+            workbook.write(out);
+            return new MockMultipartFile("file", "socks.xlsx", null, out.toByteArray());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.javarest.socks.service;
+
+import com.javarest.socks.config.SocksRetryProperties;
+import com.javarest.socks.dto.SocksRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class KeyLockingSocksServiceTest {
+
+    @Mock
+    private SocksServiceImpl delegate;
+
+    @Mock
+    private SocksKeyLocks locks;
+
+    @Mock
+    private SocksIncomeBuffer incomeBuffer;
+
+    @Mock
+    private StockLedger stockLedger;
+
+    private KeyLockingSocksService service;
+
+    private final SocksRequest socks = SocksRequest.builder().color("red").cottonPercentage(35).quantity(5).build();
+
+    @BeforeEach
+    void setUp() {
+        SocksRetryProperties retryProperties = new SocksRetryProperties();
+        retryProperties.setMaxAttempts(3);
+        retryProperties.setInitialBackoff(Duration.ofMillis(1));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        service = new KeyLockingSocksService(delegate, locks, incomeBuffer, stockLedger,
+                new OptimisticRetry(retryProperties, registry), new SocksMetrics(registry));
+    }
+
+    @Test
+    @DisplayName("Every attempt takes the stripe anew, so it is released while the retry backs off")
+    void shouldReleaseStripeBetweenAttempts() {
+        // Arrange
+        when(locks.withLock(eq("red"), eq(35), any())).thenAnswer(invocation -> {
+            Supplier<?> action = invocation.getArgument(2);
+            return action.get();
+        });
+        doThrow(new ObjectOptimisticLockingFailureException("Socks", 1L))
+                .doNothing()
+                .when(delegate).registerSocksOutcome(socks);
+
+        // Act
+        service.registerSocksOutcome(socks);
+
+        // Assert
+        InOrder order = inOrder(locks, delegate);
+        order.verify(locks).withLock(eq("red"), eq(35), any());
+        order.verify(delegate).registerSocksOutcome(socks);
+        order.verify(locks).withLock(eq("red"), eq(35), any());
+        order.verify(delegate).registerSocksOutcome(socks);
+    }
+
+    @Test
+    @DisplayName("Ledger incomes lock no row, so they skip the stripes")
+    void shouldNotLockLedgerIncomes() {
+        // Arrange
+        when(stockLedger.isEnabled()).thenReturn(true);
+
+        // Act
+        service.registerSocksIncome(socks);
+
+        // Assert
+        verify(delegate).registerSocksIncome(socks);
+        verify(locks, never()).withLock(anyString(), anyInt(), any());
+    }
+}
@@ -0,0 +1,64 @@
+package com.javarest.socks.service;
+
+import com.javarest.socks.config.SocksRetryProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OptimisticRetryTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private OptimisticRetry retry;
+
+    @BeforeEach
+    void setUp() {
+        SocksRetryProperties properties = new SocksRetryProperties();
+        properties.setMaxAttempts(3);
+        properties.setInitialBackoff(Duration.ofMillis(1));
+        meterRegistry = new SimpleMeterRegistry();
+        retry = new OptimisticRetry(properties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Mutation is run again after an optimistic lock conflict")
+    void shouldRetryConflictingMutation() {
+        // Arrange
+        AtomicInteger runs = new AtomicInteger();
+
+        // Act
+        String result = retry.run("update", () -> {
+            if (runs.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException("Socks", 1L);
+            }
+            return "updated";
+        });
+
+        // Assert
+        assertEquals("updated", result);
+        assertEquals(2.0, meterRegistry.get("socks.retry.attempts").tag("operation", "update").counter().count());
+    }
+
+    @Test
+    @DisplayName("Conflict is rethrown once the attempts are used up")
+    void shouldGiveUpAfterMaxAttempts() {
+        // Arrange
+        AtomicInteger runs = new AtomicInteger();
+
+        // Act and assert
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> retry.run("update", () -> {
+            runs.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException("Socks", 1L);
+        }));
+        assertEquals(3, runs.get());
+        assertEquals(1.0, meterRegistry.get("socks.retry.exhausted").tag("operation", "update").counter().count());
+    }
+}
@@ -0,0 +1,90 @@
+package com.javarest.socks.service;
+
+import com.javarest.socks.config.SocksAuditProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SocksAuditLogTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    @DisplayName("Recorded events are written as JSON lines by the background writer")
+    void shouldWriteEventsAsJsonLines() throws Exception {
+        // Arrange
+        SocksAuditProperties properties = new SocksAuditProperties();
+        properties.setFile(directory.resolve("audit.log"));
+        SocksAuditLog auditLog = new SocksAuditLog(properties);
+        auditLog.start();
+
+        // Act
+        auditLog.record("income", "color", "red", "cottonPercentage", 50, "quantity", 10);
+        auditLog.record("update", "id", 7L, "color", "say \"hi\"");
+        auditLog.stop();
+
+        // Assert
+        List<String> lines = Files.readAllLines(properties.getFile());
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).endsWith("\"action\":\"income\",\"color\":\"red\",\"cottonPercentage\":50,\"quantity\":10}"));
+        assertTrue(lines.get(1).endsWith("\"action\":\"update\",\"id\":7,\"color\":\"say \\\"hi\\\"\"}"));
+    }
+
+    @Test
+    @DisplayName("Events are dropped and counted instead of blocking when the buffer is full")
+    void shouldDropEventsWhenBufferIsFull() {
+        // Arrange
+        SocksAuditProperties properties = new SocksAuditProperties();
+        properties.setBufferSize(4);
+        SocksAuditLog auditLog = new SocksAuditLog(properties);
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            auditLog.record("income", "quantity", i);
+        }
+
+        // Assert
+        assertEquals(6, auditLog.getDroppedCount());
+    }
+
+    @Test
+    @DisplayName("Events recorded after commit are written only for committed transactions")
+    void shouldWriteEventsOfCommittedTransactionsOnly() throws Exception {
+        // Arrange
+        SocksAuditProperties properties = new SocksAuditProperties();
+        properties.setFile(directory.resolve("audit.log"));
+        SocksAuditLog auditLog = new SocksAuditLog(properties);
+        auditLog.start();
+
+        // Act
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            auditLog.recordAfterCommit("outcome", "quantity", 3);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            auditLog.recordAfterCommit("update", "id", 7L);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        auditLog.stop();
+
+        // Assert
+        List<String> lines = Files.readAllLines(properties.getFile());
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).endsWith("\"action\":\"outcome\",\"quantity\":3}"));
+    }
+}
@@ -0,0 +1,61 @@
+package com.javarest.socks.service;
+
+import com.javarest.socks.config.SocksQueryProperties;
+import com.javarest.socks.dto.CottonPercentageFilter;
+import com.javarest.socks.model.Socks;
+import com.javarest.socks.repository.SocksRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SocksCountIndexTest {
+
+    @Mock
+    private SocksRepository repository;
+
+    private SocksCountIndex countIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(repository.findAll()).thenReturn(List.of(
+                Socks.builder().color("red").cottonPercentage(0).quantity(5).build(),
+                Socks.builder().color("red").cottonPercentage(50).quantity(10).build(),
+                Socks.builder().color("red").cottonPercentage(100).quantity(20).build(),
+                Socks.builder().color("blue").cottonPercentage(50).quantity(7).build()));
+        countIndex = new SocksCountIndex(repository, new SocksQueryProperties());
+        countIndex.rebuild();
+    }
+
+    @Test
+    @DisplayName("Index answers every filter operator from prefix sums")
+    void shouldCountByFilterOperators() {
+        assertEquals(35, countIndex.count("red", null));
+        assertEquals(30, countIndex.count("red", new CottonPercentageFilter(">0")));
+        assertEquals(15, countIndex.count("red", new CottonPercentageFilter("<100")));
+        assertEquals(17, countIndex.count(null, new CottonPercentageFilter("=50")));
+        assertEquals(17, countIndex.count(null, new CottonPercentageFilter("10-60")));
+        assertEquals(0, countIndex.count("green", new CottonPercentageFilter("0-100")));
+    }
+
+    @Test
+    @DisplayName("Changes applied outside of a transaction are visible immediately")
+    void shouldApplyChangesWithoutTransaction() {
+        // Act
+        countIndex.applyAfterCommit("red", 50, -4);
+        countIndex.applyAfterCommit("green", 30, 8);
+
+        // Assert
+        assertEquals(6, countIndex.count("red", new CottonPercentageFilter("=50")));
+        assertEquals(8, countIndex.count("green", null));
+        assertEquals(46, countIndex.count(null, new CottonPercentageFilter("0-100")));
+    }
+}
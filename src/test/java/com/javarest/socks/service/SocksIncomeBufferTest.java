@@ -0,0 +1,171 @@
+package com.javarest.socks.service;
+
+import com.javarest.socks.config.SocksBatchProperties;
+import com.javarest.socks.config.SocksWriteBehindProperties;
+import com.javarest.socks.dto.CottonPercentageFilter;
+import com.javarest.socks.dto.SocksRequest;
+import com.javarest.socks.repository.SocksRepository;
+import com.javarest.socks.repository.WriteBehindSegmentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SocksIncomeBufferTest {
+
+    @Captor
+    private ArgumentCaptor<List<SocksRequest>> incomesCaptor;
+
+    @Mock
+    private SocksRepository repository;
+
+    @Mock
+    private SocksCountIndex countIndex;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private WriteBehindSegmentRepository segmentRepository;
+
+    @TempDir
+    private Path walDirectory;
+
+    private SocksIncomeBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        SocksWriteBehindProperties properties = new SocksWriteBehindProperties();
+        properties.setEnabled(true);
+        properties.setFlushInterval(Duration.ofHours(1));
+        properties.setWalDirectory(walDirectory);
+        buffer = new SocksIncomeBuffer(repository, countIndex, properties, new SocksBatchProperties(), transactionManager,
+                segmentRepository);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        buffer.stop();
+    }
+
+    @Test
+    @DisplayName("Buffered incomes are counted and written as one upsert per consignment")
+    void shouldCoalesceBufferedIncomes() throws Exception {
+        // Arrange
+        when(countIndex.isEnabled()).thenReturn(true);
+        buffer.start();
+
+        // Act
+        buffer.add("red", 35, 5);
+        buffer.add(" Red ", 35, 7);
+        buffer.add("blue", 20, 3);
+        int pendingRed = buffer.pendingCount("RED", null);
+        int pendingBelowThirty = buffer.pendingCount(null, new CottonPercentageFilter("<30"));
+        buffer.flush();
+
+        // Assert
+        assertEquals(12, pendingRed);
+        assertEquals(3, pendingBelowThirty);
+        assertEquals(0, buffer.pendingCount(null, null));
+        assertEquals(List.of("blue:20:3", "red:35:12"), writtenIncomes());
+        verify(countIndex).add("red", 35, 12);
+        verify(segmentRepository).insert(anyString());
+        assertEquals(1, segmentCount());
+    }
+
+    @Test
+    @DisplayName("Incomes left in the write-ahead log are written at startup")
+    void shouldReplayWriteAheadLog() throws Exception {
+        // Arrange
+        Files.writeString(walDirectory.resolve("income-1.wal"), "35\t5\tred\n35\t7\tred\n20\t3");
+
+        // Act
+        buffer.start();
+
+        // Assert
+        assertEquals(List.of("red:35:12"), writtenIncomes());
+        verify(segmentRepository).insert("income-1.wal");
+        verify(segmentRepository).deleteByNames(argThat(names -> names.contains("income-1.wal")));
+        assertEquals(1, segmentCount());
+    }
+
+    @Test
+    @DisplayName("Segments recorded as written before a crash are deleted without being written again")
+    void shouldSkipCommittedSegmentsOnReplay() throws Exception {
+        // Arrange
+        Files.writeString(walDirectory.resolve("income-1.wal"), "35\t5\tred\n");
+        when(segmentRepository.existsById("income-1.wal")).thenReturn(true);
+
+        // Act
+        buffer.start();
+
+        // Assert
+        verify(repository, never()).upsertQuantities(anyList());
+        assertEquals(0, buffer.pendingCount(null, null));
+        assertFalse(Files.exists(walDirectory.resolve("income-1.wal")));
+        assertEquals(1, segmentCount());
+    }
+
+    @Test
+    @DisplayName("Buffered incomes stay counted and logged when the write fails")
+    void shouldKeepIncomesWhenWriteFails() throws Exception {
+        // Arrange
+        buffer.start();
+        buffer.add("red", 35, 5);
+        doThrow(new DataAccessResourceFailureException("database down"))
+                .doNothing()
+                .when(repository).upsertQuantities(anyList());
+
+        // Act
+        assertThrows(DataAccessResourceFailureException.class, buffer::flush);
+        int pendingAfterFailure = buffer.pendingCount("red", null);
+        buffer.flush();
+
+        // Assert
+        assertEquals(5, pendingAfterFailure);
+        assertEquals(0, buffer.pendingCount("red", null));
+        verify(segmentRepository, times(2)).insert(anyString());
+        assertEquals(1, segmentCount());
+    }
+
+    private List<String> writtenIncomes() {
+        verify(repository).upsertQuantities(incomesCaptor.capture());
+        return incomesCaptor.getValue().stream()
+                .map(income -> income.getColor() + ":" + income.getCottonPercentage() + ":" + income.getQuantity())
+                .sorted()
+                .toList();
+    }
+
+    private long segmentCount() throws Exception {
+        try (Stream<Path> files = Files.list(walDirectory)) {
+            return files.count();
+        }
+    }
+}
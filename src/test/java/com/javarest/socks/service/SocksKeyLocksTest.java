@@ -0,0 +1,83 @@
+package com.javarest.socks.service;
+
+import com.javarest.socks.config.SocksLockProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SocksKeyLocksTest {
+
+    private SocksKeyLocks locks;
+
+    @BeforeEach
+    void setUp() {
+        SocksLockProperties properties = new SocksLockProperties();
+        properties.setStripes(8);
+        locks = new SocksKeyLocks(properties);
+    }
+
+    @Test
+    @DisplayName("Mutations of one consignment wait for each other and show up in the queue depth")
+    void shouldSerializeSameKey() throws Exception {
+        // Arrange
+        int stripe = locks.stripeOf("red", 35);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        locks.bindTo(registry);
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> locks.withLock("red", 35, () -> {
+            holding.countDown();
+            await(release);
+            return null;
+        }));
+        assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+        // Act
+        CompletableFuture<String> waiter = CompletableFuture.supplyAsync(() -> locks.withLock(" RED ", 35, () -> "done"));
+        while (locks.queueDepth(stripe) == 0) {
+            Thread.onSpinWait();
+        }
+
+        // Assert
+        assertFalse(waiter.isDone());
+        assertEquals(1.0, registry.get("socks.locks.queue.depth").tag("stripe", String.valueOf(stripe)).gauge().value());
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        assertEquals("done", waiter.get(5, TimeUnit.SECONDS));
+        assertEquals(0, locks.queueDepth(stripe));
+    }
+
+    @Test
+    @DisplayName("Several consignments are locked together and all stripes are released afterwards")
+    void shouldLockAndReleaseSeveralKeys() {
+        // Arrange
+        List<TestKey> keys = List.of(new TestKey("red", 35), new TestKey("blue", 20), new TestKey("red", 35));
+
+        // Act
+        String result = locks.withLocks(keys, () -> "done");
+
+        // Assert
+        assertEquals("done", result);
+        assertEquals("again", CompletableFuture.supplyAsync(() -> locks.withLocks(keys, () -> "again")).join());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record TestKey(String color, int cottonPercentage) implements SocksKeyLocks.Key {
+    }
+}
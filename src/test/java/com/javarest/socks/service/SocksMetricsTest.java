@@ -0,0 +1,43 @@
+package com.javarest.socks.service;
+
+import com.javarest.socks.dto.BatchImportResult;
+import com.javarest.socks.exception.exceptions.InsufficientStockException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SocksMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final SocksMetrics metrics = new SocksMetrics(registry);
+
+    @Test
+    @DisplayName("Service calls are timed per method and tagged with the exception they ended with")
+    void shouldTimeCallsPerMethodAndException() {
+        // Act
+        int count = metrics.time("count", () -> 42);
+        assertThrows(InsufficientStockException.class, () -> metrics.time("outcome", () -> {
+            throw new InsufficientStockException("Not enough socks");
+        }));
+
+        // Assert
+        assertEquals(42, count);
+        assertEquals(1, registry.get("socks.service").tags("method", "count", "exception", "none").timer().count());
+        assertEquals(1, registry.get("socks.service")
+                .tags("method", "outcome", "exception", "InsufficientStockException").timer().count());
+    }
+
+    @Test
+    @DisplayName("Batch gauge shows the rows per second of the last batch")
+    void shouldGaugeRowsPerSecondOfLastBatch() {
+        // Act
+        metrics.recordBatch(new BatchImportResult(1000, 0, 10, 500));
+
+        // Assert
+        assertEquals(2000, registry.get("socks.batch.rows.per.second").gauge().value());
+    }
+}
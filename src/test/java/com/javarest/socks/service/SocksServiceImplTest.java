@@ -1,30 +1,81 @@
 package com.javarest.socks.service;
 
+import com.javarest.socks.config.SocksBatchProperties;
+import com.javarest.socks.config.SocksQueryProperties;
+import com.javarest.socks.dto.BatchImportResult;
+import com.javarest.socks.dto.CottonPercentageFilter;
+import com.javarest.socks.dto.MovementStatus;
+import com.javarest.socks.dto.MovementType;
+import com.javarest.socks.dto.SocksMovement;
+import com.javarest.socks.dto.SocksMovementResult;
+import com.javarest.socks.dto.SocksMovementsResult;
 import com.javarest.socks.dto.SocksRequest;
+import com.javarest.socks.exception.constant.ErrorMessage;
 import com.javarest.socks.exception.exceptions.InsufficientStockException;
+import com.javarest.socks.exception.exceptions.InvalidPageRequestException;
+import com.javarest.socks.exception.exceptions.QuantityOverflowException;
+import com.javarest.socks.exception.exceptions.SocksMovementsRejectedException;
+import com.javarest.socks.exception.exceptions.SocksNotFoundException;
 import com.javarest.socks.model.Socks;
+import com.javarest.socks.repository.ColorDictionary;
 import com.javarest.socks.repository.SocksRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.function.LongSupplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class SocksServiceImplTest {
 
+    @Captor
+    private ArgumentCaptor<List<SocksRequest>> incomesCaptor;
+
     @Mock
     private SocksRepository repository;
 
+    @Spy
+    private SocksBatchProperties batchProperties = new SocksBatchProperties();
+
+    @Mock
+    private SocksCountIndex countIndex;
+
+    @Spy
+    private SocksQueryProperties queryProperties = new SocksQueryProperties();
+
+    @Mock
+    private ColorDictionary colorDictionary;
+
+    @Mock
+    private SocksIncomeBuffer incomeBuffer;
+
+    @Mock
+    private StockLedger stockLedger;
+
+    @Mock
+    private SocksAuditLog auditLog;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private SocksServiceImpl service;
 
@@ -46,27 +97,25 @@ class SocksServiceImplTest {
                 .cottonPercentage(60)
                 .quantity(50)
                 .build();
+
+        lenient().when(colorDictionary.contains("red")).thenReturn(true);
     }
 
     @Test
     @DisplayName("Socks can be registered as income")
     void shouldRegisterNewSocksWithoutErrors() {
-        // Arrange
-        when(repository.findByColorAndCottonPercentage("red", 60)).thenReturn(Optional.empty());
-
         // Act
         service.registerSocksIncome(sampleRequest);
 
         // Assert
-        verify(repository, times(1)).save(any(Socks.class));
+        verify(repository, times(1)).upsertQuantity("red", 60, 50);
+        verify(repository, never()).save(any(Socks.class));
     }
 
     @Test
-    @DisplayName("Existing socks can be updated through income")
-    void shouldUpdateExistingSocksQuantity() {
+    @DisplayName("Income is registered with a single upsert without reading existing socks")
+    void shouldRegisterIncomeWithoutReadingExistingSocks() {
         // Arrange
-        int expectedQuantity = 60;
-        when(repository.findByColorAndCottonPercentage("red", 60)).thenReturn(Optional.of(sampleSocks));
         SocksRequest additionalSocks = SocksRequest.builder()
                 .color("red")
                 .cottonPercentage(60)
@@ -77,18 +126,82 @@ class SocksServiceImplTest {
         service.registerSocksIncome(additionalSocks);
 
         // Assert
-        ArgumentCaptor<Socks> captor = ArgumentCaptor.forClass(Socks.class);
-        verify(repository, times(1)).save(captor.capture());
+        verify(repository, times(1)).upsertQuantity("red", 60, 10);
+        verify(repository, never()).findByColorAndCottonPercentage("red", 60);
+    }
+
+    @Test
+    @DisplayName("Income is buffered instead of written when write-behind is enabled")
+    void shouldBufferIncomeInWriteBehindMode() {
+        // Arrange
+        when(incomeBuffer.isEnabled()).thenReturn(true);
+
+        // Act
+        service.registerSocksIncome(sampleRequest);
 
-        Socks updatedSocks = captor.getValue();
-        assertEquals(expectedQuantity, updatedSocks.getQuantity());
+        // Assert
+        verify(incomeBuffer).add("red", 60, 50);
+        verifyNoInteractions(repository, countIndex);
+    }
+
+    @Test
+    @DisplayName("Outcome is appended to the ledger when the ledger is enabled")
+    void shouldRecordOutcomeInLedger() {
+        // Arrange
+        when(stockLedger.isEnabled()).thenReturn(true);
+
+        // Act
+        service.registerSocksOutcome(sampleRequest);
+
+        // Assert
+        verify(stockLedger).recordOutcome("red", 60, 50);
+        verify(repository, never()).decreaseQuantityIfAvailable(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Batch income merges duplicate rows and writes them in chunks")
+    void shouldMergeBatchRowsAndUpsertInChunks() {
+        // Arrange
+        batchProperties.setChunkSize(2);
+        SocksIncomeBatch batch = new SocksIncomeBatch();
+        batch.add(sampleRequest);
+        batch.add(SocksRequest.builder().color("blue").cottonPercentage(30).quantity(5).build());
+        batch.add(SocksRequest.builder().color("red").cottonPercentage(60).quantity(10).build());
+        batch.add(SocksRequest.builder().color("green").cottonPercentage(20).quantity(7).build());
+
+        // Act
+        BatchImportResult result = service.registerSocksIncomeBatch(batch);
+
+        // Assert
+        verify(repository, times(2)).upsertQuantities(incomesCaptor.capture());
+        assertEquals(2, incomesCaptor.getAllValues().get(0).size());
+        assertEquals(1, incomesCaptor.getAllValues().get(1).size());
+        assertEquals(List.of("blue", "green"), incomesCaptor.getAllValues().get(0).stream()
+                .map(SocksRequest::getColor).toList());
+        assertEquals(60, incomesCaptor.getAllValues().get(1).get(0).getQuantity());
+        assertEquals(4, result.getRows());
+        assertEquals(3, result.getConsignments());
+        verify(repository, never()).upsertQuantity(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Throwing exception when merged batch quantity overflows")
+    void shouldRejectOverflowingBatchQuantity() {
+        // Arrange
+        SocksIncomeBatch batch = new SocksIncomeBatch();
+        batch.add(SocksRequest.builder().color("red").cottonPercentage(60).quantity(Integer.MAX_VALUE).build());
+        SocksRequest overflowing = SocksRequest.builder().color("Red").cottonPercentage(60).quantity(1).build();
+
+        // Act and assert
+        assertThrows(QuantityOverflowException.class, () -> batch.add(overflowing));
     }
 
     @Test
     @DisplayName("Throwing exception when can't fulfill outcome request")
     void shouldThrowExceptionWhenOutcomeExceedsStock() {
         // Arrange
-        when(repository.findByColorAndCottonPercentage("red", 60)).thenReturn(Optional.of(sampleSocks));
+        when(repository.decreaseQuantityIfAvailable("red", 60, 100)).thenReturn(0);
+        when(repository.existsByColorAndCottonPercentage("red", 60)).thenReturn(true);
         SocksRequest outcomeRequest = SocksRequest.builder()
                 .color("red")
                 .cottonPercentage(60)
@@ -101,4 +214,178 @@ class SocksServiceImplTest {
         // Assert
         verify(repository, never()).save(any(Socks.class));
     }
+
+    @Test
+    @DisplayName("Throwing exception when outcome is requested for missing socks")
+    void shouldThrowExceptionWhenOutcomeSocksNotFound() {
+        // Arrange
+        when(repository.decreaseQuantityIfAvailable("red", 60, 50)).thenReturn(0);
+        when(repository.existsByColorAndCottonPercentage("red", 60)).thenReturn(false);
+
+        // Act and assert
+        assertThrows(SocksNotFoundException.class, () -> service.registerSocksOutcome(sampleRequest));
+    }
+
+    @Test
+    @DisplayName("Throwing exception when outcome is requested for a color that was never stored")
+    void shouldThrowExceptionWhenOutcomeColorUnknown() {
+        // Arrange
+        SocksRequest outcomeRequest = SocksRequest.builder()
+                .color("mauve")
+                .cottonPercentage(60)
+                .quantity(50)
+                .build();
+
+        // Act and assert
+        assertThrows(SocksNotFoundException.class, () -> service.registerSocksOutcome(outcomeRequest));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("Outcome is registered with a single conditional update")
+    void shouldRegisterOutcomeWithSingleUpdate() {
+        // Arrange
+        when(repository.decreaseQuantityIfAvailable("red", 60, 50)).thenReturn(1);
+
+        // Act
+        service.registerSocksOutcome(sampleRequest);
+
+        // Assert
+        verify(repository, never()).existsByColorAndCottonPercentage("red", 60);
+        verify(repository, never()).save(any(Socks.class));
+    }
+
+    @Test
+    @DisplayName("Bulk movements lock consignments in color and cotton percentage order")
+    void shouldLockBulkMovementsInKeyOrder() {
+        // Arrange
+        List<SocksMovement> movements = List.of(
+                SocksMovement.builder().type(MovementType.INCOME).color("white").cottonPercentage(60).quantity(5).build(),
+                SocksMovement.builder().type(MovementType.OUTCOME).color("Red").cottonPercentage(60).quantity(20).build(),
+                SocksMovement.builder().type(MovementType.INCOME).color("red").cottonPercentage(35).quantity(5).build());
+        when(repository.findForUpdate("red", 35)).thenReturn(Optional.of(Socks.builder().quantity(0).build()));
+        when(stockLedger.lockBalance("red", 60)).thenReturn(Optional.of(sampleSocks));
+        when(repository.findForUpdate("white", 60)).thenReturn(Optional.of(Socks.builder().quantity(10).build()));
+
+        // Act
+        SocksMovementsResult result = service.registerSocksMovements(movements);
+
+        // Assert
+        InOrder lockOrder = inOrder(repository, stockLedger);
+        lockOrder.verify(repository).findForUpdate("red", 35);
+        lockOrder.verify(stockLedger).lockBalance("red", 60);
+        lockOrder.verify(repository).findForUpdate("white", 60);
+        assertTrue(result.isApplied());
+        assertEquals(List.of(15, 30, 5), result.getResults().stream().map(SocksMovementResult::getStockAfter).toList());
+        assertEquals(30, sampleSocks.getQuantity());
+        verify(countIndex).applyAfterCommit("red", 60, -20);
+    }
+
+    @Test
+    @DisplayName("Bulk movements are rejected as a whole when one entry exceeds stock")
+    void shouldRejectWholeBulkWhenOneMovementExceedsStock() {
+        // Arrange
+        List<SocksMovement> movements = List.of(
+                SocksMovement.builder().type(MovementType.INCOME).color("blue").cottonPercentage(30).quantity(5).build(),
+                SocksMovement.builder().type(MovementType.OUTCOME).color("red").cottonPercentage(60).quantity(100).build());
+        when(repository.findForUpdate("blue", 30)).thenReturn(Optional.of(Socks.builder().quantity(0).build()));
+        when(stockLedger.lockBalance("red", 60)).thenReturn(Optional.of(sampleSocks));
+
+        // Act
+        SocksMovementsRejectedException exception = assertThrows(SocksMovementsRejectedException.class,
+                () -> service.registerSocksMovements(movements));
+
+        // Assert
+        List<SocksMovementResult> results = exception.getResult().getResults();
+        assertFalse(exception.getResult().isApplied());
+        assertEquals(MovementStatus.NOT_APPLIED, results.get(0).getStatus());
+        assertEquals(MovementStatus.REJECTED, results.get(1).getStatus());
+        assertEquals(50, sampleSocks.getQuantity());
+    }
+
+    @Test
+    @DisplayName("Bulk movements are rejected instead of overflowing the stock of a consignment")
+    void shouldRejectBulkWhenIncomesOverflowStock() {
+        // Arrange
+        List<SocksMovement> movements = List.of(
+                SocksMovement.builder().type(MovementType.INCOME).color("red").cottonPercentage(60)
+                        .quantity(Integer.MAX_VALUE - 100).build(),
+                SocksMovement.builder().type(MovementType.INCOME).color("red").cottonPercentage(60).quantity(100).build());
+        when(repository.findForUpdate("red", 60)).thenReturn(Optional.of(sampleSocks));
+
+        // Act
+        SocksMovementsRejectedException exception = assertThrows(SocksMovementsRejectedException.class,
+                () -> service.registerSocksMovements(movements));
+
+        // Assert
+        List<SocksMovementResult> results = exception.getResult().getResults();
+        assertEquals(MovementStatus.NOT_APPLIED, results.get(0).getStatus());
+        assertEquals(MovementStatus.REJECTED, results.get(1).getStatus());
+        assertEquals(ErrorMessage.QUANTITY_OVERFLOW.getMsg(), results.get(1).getMessage());
+        assertEquals(50, sampleSocks.getQuantity());
+    }
+
+    @Test
+    @DisplayName("Socks count is served from the index when it is enabled")
+    void shouldCountSocksFromIndex() {
+        // Arrange
+        CottonPercentageFilter filter = new CottonPercentageFilter(">50");
+        when(countIndex.isEnabled()).thenReturn(true);
+        when(countIndex.count("red", filter)).thenReturn(42);
+        countWithoutPendingIncomes();
+
+        // Act
+        int count = service.getSocksCount("red", filter);
+
+        // Assert
+        assertEquals(42, count);
+        verifyNoInteractions(repository, transactionManager);
+    }
+
+    @Test
+    @DisplayName("Socks count falls back to SQL in a read-only transaction when the index is disabled")
+    void shouldCountSocksFromDatabaseInReadOnlyTransaction() {
+        // Arrange
+        CottonPercentageFilter filter = new CottonPercentageFilter(">50");
+        when(repository.sumQuantity("red", filter)).thenReturn(40L);
+        when(stockLedger.pendingCount("red", filter)).thenReturn(2);
+        countWithoutPendingIncomes();
+
+        // Act
+        int count = service.getSocksCount("red", filter);
+
+        // Assert
+        assertEquals(42, count);
+        verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+    }
+
+    @Test
+    @DisplayName("Committed outcome is applied to the count index")
+    void shouldApplyOutcomeToCountIndex() {
+        // Arrange
+        when(repository.decreaseQuantityIfAvailable("red", 60, 50)).thenReturn(1);
+
+        // Act
+        service.registerSocksOutcome(sampleRequest);
+
+        // Assert
+        verify(countIndex).applyAfterCommit("red", 60, -50);
+    }
+
+    @Test
+    @DisplayName("Throwing exception when requested page is larger than allowed")
+    void shouldRejectTooLargePage() {
+        // Arrange
+        int limit = queryProperties.getMaxPageSize() + 1;
+
+        // Act and assert
+        assertThrows(InvalidPageRequestException.class,
+                () -> service.getSocksPage(null, null, "color", "asc", null, limit));
+        verifyNoInteractions(repository);
+    }
+
+    private void countWithoutPendingIncomes() {
+        when(incomeBuffer.countWithPending(any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<LongSupplier>getArgument(2).getAsLong());
+    }
 }
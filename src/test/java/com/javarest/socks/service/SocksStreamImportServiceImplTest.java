@@ -0,0 +1,81 @@
+package com.javarest.socks.service;
+
+import com.javarest.socks.config.SocksBatchProperties;
+import com.javarest.socks.dto.BatchImportResult;
+import com.javarest.socks.exception.exceptions.InvalidFileFormatException;
+import com.javarest.socks.exception.exceptions.PartialImportException;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SocksStreamImportServiceImplTest {
+
+    @Mock
+    private SocksService socksService;
+
+    private SocksStreamImportServiceImpl importService;
+
+    @BeforeEach
+    void setUp() {
+        SocksBatchProperties properties = new SocksBatchProperties();
+        properties.setCheckpointRows(2);
+        importService = new SocksStreamImportServiceImpl(socksService, properties,
+                Validation.buildDefaultValidatorFactory().getValidator());
+    }
+
+    @Test
+    @DisplayName("Stream import commits rows in chunks of the checkpoint size")
+    void shouldImportRowsInChunks() {
+        // Arrange
+        when(socksService.registerSocksIncomeBatch(any(SocksIncomeBatch.class)))
+                .thenReturn(new BatchImportResult(2, 0, 2, 1));
+
+        // Act
+        BatchImportResult result = importService.importCsv(stream("red,80,50\nblue,35,120\nred,80,5\n"));
+
+        // Assert
+        assertEquals(3, result.getRows());
+        verify(socksService, times(2)).registerSocksIncomeBatch(any(SocksIncomeBatch.class));
+    }
+
+    @Test
+    @DisplayName("Stream import failing after a committed chunk reports the committed rows")
+    void shouldReportCommittedRowsOnLateFailure() {
+        // Arrange
+        when(socksService.registerSocksIncomeBatch(any(SocksIncomeBatch.class)))
+                .thenReturn(new BatchImportResult(2, 0, 2, 1));
+
+        // Act
+        PartialImportException exception = assertThrows(PartialImportException.class,
+                () -> importService.importCsv(stream("red,80,50\nblue,35,120\nred,80\n")));
+
+        // Assert
+        assertEquals(2, exception.getCommittedRows());
+        assertInstanceOf(InvalidFileFormatException.class, exception.getCause());
+    }
+
+    @Test
+    @DisplayName("Stream import failing before any commit rethrows the parsing error")
+    void shouldRethrowEarlyFailure() {
+        // Act and assert
+        assertThrows(InvalidFileFormatException.class, () -> importService.importCsv(stream("red,80\n")));
+        verifyNoInteractions(socksService);
+    }
+
+    private InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,116 @@
+package com.javarest.socks.service;
+
+import com.javarest.socks.config.SocksBatchProperties;
+import com.javarest.socks.config.SocksLedgerProperties;
+import com.javarest.socks.dto.SocksRequest;
+import com.javarest.socks.exception.exceptions.InsufficientStockException;
+import com.javarest.socks.model.Socks;
+import com.javarest.socks.model.StockMovement;
+import com.javarest.socks.repository.ColorDictionary;
+import com.javarest.socks.repository.SocksRepository;
+import com.javarest.socks.repository.StockMovementRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockLedgerTest {
+
+    @Captor
+    private ArgumentCaptor<List<SocksRequest>> incomesCaptor;
+
+    @Mock
+    private StockMovementRepository movementRepository;
+
+    @Mock
+    private SocksRepository repository;
+
+    @Mock
+    private ColorDictionary colorDictionary;
+
+    @Mock
+    private SocksCountIndex countIndex;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private StockLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        SocksLedgerProperties properties = new SocksLedgerProperties();
+        properties.setEnabled(true);
+        ledger = new StockLedger(movementRepository, repository, colorDictionary, countIndex, properties,
+                new SocksBatchProperties(), transactionManager);
+    }
+
+    @Test
+    @DisplayName("Compaction folds movements into one balance change per consignment, in key order")
+    void shouldFoldMovementsPerConsignment() {
+        // Arrange
+        when(movementRepository.findPending(any())).thenReturn(List.of(
+                movement(1L, "red", 35, 10),
+                movement(2L, "blue", 20, 4),
+                movement(3L, "red", 35, -3)));
+        when(movementRepository.markCompacted(List.of(1L, 2L, 3L))).thenReturn(3);
+
+        // Act
+        int compacted = ledger.compact();
+
+        // Assert
+        verify(repository).upsertQuantities(incomesCaptor.capture());
+        assertEquals(3, compacted);
+        assertEquals(List.of("blue:20:4", "red:35:7"), incomesCaptor.getValue().stream()
+                .map(balance -> balance.getColor() + ":" + balance.getCottonPercentage() + ":" + balance.getQuantity())
+                .toList());
+        verifyNoInteractions(countIndex);
+    }
+
+    @Test
+    @DisplayName("Compaction backs off when another compaction has taken the movements")
+    void shouldRejectConcurrentCompaction() {
+        // Arrange
+        when(movementRepository.findPending(any())).thenReturn(List.of(movement(1L, "red", 35, 10)));
+        when(movementRepository.markCompacted(List.of(1L))).thenReturn(0);
+
+        // Act and assert
+        assertThrows(ConcurrencyFailureException.class, () -> ledger.compact());
+        verify(repository, never()).upsertQuantities(any());
+    }
+
+    @Test
+    @DisplayName("Outcome is checked against the balance plus pending movements")
+    void shouldCheckOutcomeAgainstPendingMovements() {
+        // Arrange
+        when(colorDictionary.contains("red")).thenReturn(true);
+        when(repository.findForUpdate("red", 35)).thenReturn(Optional.of(Socks.builder().quantity(5).build()));
+        when(movementRepository.sumPending("red", 35)).thenReturn(10L, -5L);
+
+        // Act
+        ledger.recordOutcome("red", 35, 15);
+
+        // Assert
+        assertThrows(InsufficientStockException.class, () -> ledger.recordOutcome("red", 35, 1));
+        verify(movementRepository, times(1)).save(any(StockMovement.class));
+        verify(countIndex).applyAfterCommit("red", 35, -15);
+    }
+
+    private static StockMovement movement(Long id, String color, int cottonPercentage, int quantity) {
+        return StockMovement.builder().id(id).color(color).cottonPercentage(cottonPercentage).quantity(quantity).build();
+    }
+}
@@ -0,0 +1,67 @@
+package com.javarest.socks.util;
+
+import com.javarest.socks.dto.SocksRequest;
+import com.javarest.socks.exception.exceptions.InvalidFileFormatException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvUtilsTest {
+
+    @Test
+    @DisplayName("CSV rows are parsed skipping the header and blank lines")
+    void shouldParseCsvRowsSkippingHeader() {
+        // Arrange
+        InputStream csv = stream("""
+                color,cottonPercentage,quantity
+                red,80,50
+
+                "dark blue", 35 ,120
+                """);
+        List<SocksRequest> rows = new ArrayList<>();
+
+        // Act
+        CsvUtils.parseCsv(csv, rows::add);
+
+        // Assert
+        assertEquals(2, rows.size());
+        assertEquals("red", rows.get(0).getColor());
+        assertEquals(80, rows.get(0).getCottonPercentage());
+        assertEquals("dark blue", rows.get(1).getColor());
+        assertEquals(35, rows.get(1).getCottonPercentage());
+        assertEquals(120, rows.get(1).getQuantity());
+    }
+
+    @Test
+    @DisplayName("Throwing exception when a CSV row has missing fields")
+    void shouldThrowExceptionOnIncompleteRow() {
+        // Arrange
+        InputStream csv = stream("red,80\n");
+
+        // Act and assert
+        assertThrows(InvalidFileFormatException.class, () -> CsvUtils.parseCsv(csv, row -> { }));
+    }
+
+    @Test
+    @DisplayName("Throwing exception when the first CSV row is neither the header nor a valid row")
+    void shouldThrowExceptionOnInvalidFirstRow() {
+        // Arrange
+        InputStream csv = stream("red,eighty,50\nblue,35,120\n");
+        List<SocksRequest> rows = new ArrayList<>();
+
+        // Act and assert
+        assertThrows(InvalidFileFormatException.class, () -> CsvUtils.parseCsv(csv, rows::add));
+        assertTrue(rows.isEmpty());
+    }
+
+    private InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,116 @@
+package com.javarest.socks.util;
+
+import com.javarest.socks.dto.SocksRequest;
+import com.javarest.socks.exception.exceptions.InvalidFileFormatException;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExcelUtilsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Rows are streamed to the consumer skipping the header row")
+    void shouldStreamRowsSkippingHeader() throws IOException {
+        // Arrange
+        File file = writeWorkbook(new Object[][]{
+                {"color", "cottonPercentage", "quantity"},
+                {"red", 80, 50},
+                {"blue", 35, 120}
+        });
+        List<SocksRequest> rows = new ArrayList<>();
+
+        // Act
+        ExcelUtils.parseExcelFile(file, rows::add);
+
+        // Assert
+        assertEquals(2, rows.size());
+        assertEquals("red", rows.get(0).getColor());
+        assertEquals(80, rows.get(0).getCottonPercentage());
+        assertEquals(50, rows.get(0).getQuantity());
+        assertEquals("blue", rows.get(1).getColor());
+        assertEquals(120, rows.get(1).getQuantity());
+    }
+
+    @Test
+    @DisplayName("Throwing exception when a row contains non-numeric quantity")
+    void shouldThrowExceptionOnInvalidRow() throws IOException {
+        // Arrange
+        File file = writeWorkbook(new Object[][]{
+                {"color", "cottonPercentage", "quantity"},
+                {"red", 80, "many"}
+        });
+
+        // Act and assert
+        assertThrows(InvalidFileFormatException.class, () -> ExcelUtils.parseExcelFile(file));
+    }
+
+    @Test
+    @DisplayName("Numeric cells are read by value whatever their format, and grouped text numbers are parsed")
+    void shouldReadFormattedNumbers() throws IOException {
+        // Arrange
+        File file = tempDir.resolve("formatted.xlsx").toFile();
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = new FileOutputStream(file)) {
+            CellStyle grouped = workbook.createCellStyle();
+            grouped.setDataFormat(workbook.createDataFormat().getFormat("#,##0"));
+            Sheet sheet = workbook.createSheet();
+            sheet.createRow(0).createCell(0).setCellValue("color");
+            Row numeric = sheet.createRow(1);
+            numeric.createCell(0).setCellValue("red");
+            numeric.createCell(1).setCellValue(80);
+            Cell quantity = numeric.createCell(2);
+            quantity.setCellValue(1000);
+            quantity.setCellStyle(grouped);
+            Row text = sheet.createRow(2);
+            text.createCell(0).setCellValue("blue");
+            text.createCell(1).setCellValue("35");
+            text.createCell(2).setCellValue(NumberFormat.getNumberInstance(Locale.getDefault()).format(2500));
+            workbook.write(out);
+        }
+
+        // Act
+        List<SocksRequest> rows = ExcelUtils.parseExcelFile(file);
+
+        // Assert
+        assertEquals(1000, rows.get(0).getQuantity());
+        assertEquals(2500, rows.get(1).getQuantity());
+    }
+
+    private File writeWorkbook(Object[][] values) throws IOException {
+        File file = tempDir.resolve("socks.xlsx").toFile();
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = new FileOutputStream(file)) {
+            Sheet sheet = workbook.createSheet();
+            for (int i = 0; i < values.length; i++) {
+                Row row = sheet.createRow(i);
+                for (int j = 0; j < values[i].length; j++) {
+                    if (values[i][j] instanceof Integer number) {
+                        row.createCell(j).setCellValue(number);
+                    } else {
+                        row.createCell(j).setCellValue((String) values[i][j]);
+                    }
+                }
+            }
+            workbook.write(out);
+        }
+        return file;
+    }
+}
@@ -0,0 +1,76 @@
+package com.javarest.socks.util;
+
+import com.javarest.socks.dto.SocksRequest;
+import com.javarest.socks.exception.exceptions.InvalidFileFormatException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NdjsonUtilsTest {
+
+    @Test
+    @DisplayName("NDJSON objects are parsed one per line ignoring unknown fields")
+    void shouldParseNdjsonObjects() {
+        // Arrange
+        InputStream ndjson = stream("""
+                {"color":"red","cottonPercentage":80,"quantity":50}
+                {"quantity":120,"color":"blue","cottonPercentage":35,"warehouse":{"id":7}}
+                """);
+        List<SocksRequest> rows = new ArrayList<>();
+
+        // Act
+        NdjsonUtils.parseNdjson(ndjson, rows::add);
+
+        // Assert
+        assertEquals(2, rows.size());
+        assertEquals("red", rows.get(0).getColor());
+        assertEquals(50, rows.get(0).getQuantity());
+        assertEquals("blue", rows.get(1).getColor());
+        assertEquals(35, rows.get(1).getCottonPercentage());
+        assertEquals(120, rows.get(1).getQuantity());
+    }
+
+    @Test
+    @DisplayName("Throwing exception when NDJSON content is not a sequence of objects")
+    void shouldThrowExceptionOnInvalidContent() {
+        // Arrange
+        InputStream ndjson = stream("[1, 2, 3]\n");
+
+        // Act and assert
+        assertThrows(InvalidFileFormatException.class, () -> NdjsonUtils.parseNdjson(ndjson, row -> { }));
+    }
+
+    @Test
+    @DisplayName("Throwing exception when an NDJSON object lacks a field")
+    void shouldThrowExceptionOnMissingField() {
+        // Arrange
+        InputStream ndjson = stream("{\"color\":\"red\",\"cottonPercentage\":80}\n");
+
+        // Act and assert
+        assertThrows(InvalidFileFormatException.class, () -> NdjsonUtils.parseNdjson(ndjson, row -> { }));
+    }
+
+    @Test
+    @DisplayName("Throwing exception when an NDJSON number field is not an integer")
+    void shouldThrowExceptionOnNonIntegerField() {
+        // Arrange
+        InputStream ndjson = stream("""
+                {"color":"red","cottonPercentage":"80","quantity":50}
+                {"color":"red","cottonPercentage":80,"quantity":50.5}
+                """);
+
+        // Act and assert
+        assertThrows(InvalidFileFormatException.class, () -> NdjsonUtils.parseNdjson(ndjson, row -> { }));
+    }
+
+    private InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}